@@ -0,0 +1,242 @@
+package mk.ukim.finki.wp.workspaces.config.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Ids of the workspaces that exist, so a lookup of an id that was never created is answered without a query.
+ * A Bloom filter holds every id; it is built from the database at startup and learns new ids from the creations
+ * relayed over the {@link InvalidationBus}. Ids the database confirmed missing, such as deleted workspaces or the
+ * filter's false positives, are remembered for {@code workspace.ids.negative-ttl}. Until the filter is built, and
+ * while it is rebuilt after a catalog-wide change, every id is looked up.
+ * <p>
+ * Both only know of creations the bus delivered, so a lookup is answered from them alone only while the bus
+ * {@linkplain InvalidationBus#reachesEveryInstance() reaches every instance}. Otherwise every id the filter lacks
+ * is looked up, and one found is added. The filter is also rebuilt every {@code workspace.ids.rebuild-interval},
+ * so an id whose creation notice was lost is rejected for at most that long.
+ */
+@Component
+public class ExistingWorkspaceIds {
+    private static final Logger log = LoggerFactory.getLogger(ExistingWorkspaceIds.class);
+
+    private final WorkspaceRepository workspaceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InvalidationBus invalidationBus;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Duration rebuildInterval;
+    private final Cache<Long, Boolean> missing;
+    private final AtomicLong creations = new AtomicLong();
+    private final AtomicLong catalogGeneration = new AtomicLong();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    // Not synchronized, a virtual thread blocked on the query inside would pin its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("workspace-ids-rebuild").daemon().factory());
+    private final Counter rejected;
+    private final Counter rememberedMissing;
+    private final Counter found;
+    private final Counter falsePositives;
+    private final Counter unfiltered;
+    private final Counter unconfirmed;
+    private volatile LongBloomFilter filter;
+    private volatile LongBloomFilter building;
+
+    public ExistingWorkspaceIds(
+            WorkspaceRepository workspaceRepository,
+            // Read-write, so the ids are read from the primary database and not from a lagging replica
+            PlatformTransactionManager transactionManager,
+            InvalidationBus invalidationBus,
+            @Value("${workspace.ids.enabled:true}") boolean enabled,
+            @Value("${workspace.ids.expected-insertions:100000}") long expectedInsertions,
+            @Value("${workspace.ids.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${workspace.ids.negative-ttl:30s}") Duration negativeTtl,
+            @Value("${workspace.ids.negative-maximum-size:100000}") long negativeMaximumSize,
+            @Value("${workspace.ids.rebuild-interval:5m}") Duration rebuildInterval,
+            MeterRegistry meterRegistry
+    ) {
+        this.workspaceRepository = workspaceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.invalidationBus = invalidationBus;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildInterval = rebuildInterval;
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(negativeMaximumSize)
+                .expireAfterWrite(negativeTtl)
+                .build();
+        this.rejected = lookups(meterRegistry, "rejected");
+        this.rememberedMissing = lookups(meterRegistry, "remembered_missing");
+        this.found = lookups(meterRegistry, "found");
+        this.falsePositives = lookups(meterRegistry, "false_positive");
+        this.unfiltered = lookups(meterRegistry, "unfiltered");
+        this.unconfirmed = lookups(meterRegistry, "unconfirmed");
+        Gauge.builder("workspace.ids.filter.expected.false.positive.rate", this,
+                        ids -> ids.filter == null ? Double.NaN : ids.filter.expectedFalsePositiveRate())
+                .register(meterRegistry);
+        invalidationBus.subscribe(this::onWorkspaceChanged);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException exception) {
+            log.warn("Could not load the workspace ids, every id is looked up until the next rebuild", exception);
+        }
+        if (rebuildInterval.isPositive()) {
+            rebuilder.scheduleWithFixedDelay(this::scheduleRebuild, rebuildInterval.toMillis(),
+                    rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @param loader looks the workspace up in the database, only called when the id may exist
+     */
+    public <T> Optional<T> find(Long workspaceId, Function<Long, Optional<T>> loader) {
+        if (!enabled) {
+            return loader.apply(workspaceId);
+        }
+        LongBloomFilter current = filter;
+        boolean filteredOut = current != null && !current.mightContain(workspaceId);
+        boolean complete = invalidationBus.reachesEveryInstance();
+        if (filteredOut && complete) {
+            rejected.increment();
+            return Optional.empty();
+        }
+        if (complete && missing.getIfPresent(workspaceId) != null) {
+            rememberedMissing.increment();
+            return Optional.empty();
+        }
+
+        long knownCreations = creations.get();
+        Optional<T> loaded = loader.apply(workspaceId);
+        if (loaded.isPresent()) {
+            found.increment();
+            if (filteredOut) {
+                // Created on an instance whose notice did not reach this one
+                add(workspaceId);
+            }
+            return loaded;
+        }
+        (current == null ? unfiltered : filteredOut ? unconfirmed : falsePositives).increment();
+        // Not remembered when a workspace was created meanwhile, it may be this one
+        missing.asMap().compute(workspaceId, (id, known) -> creations.get() == knownCreations ? Boolean.TRUE : known);
+        return loaded;
+    }
+
+    /**
+     * Reads every id from the database into a new filter, sized for twice the current number of workspaces.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        long generation = catalogGeneration.get();
+        try {
+            LongBloomFilter next = transactionTemplate.execute(status -> {
+                LongBloomFilter ids = LongBloomFilter.create(Math.max(expectedInsertions, 2 * workspaceRepository.count()),
+                        falsePositiveRate);
+                // Ids created from here on reach the new filter through add, the ones committed before through the query
+                building = ids;
+                try (Stream<Long> existing = workspaceRepository.streamAllIds()) {
+                    existing.forEach(ids::put);
+                }
+                return ids;
+            });
+            // Built from a read that may have missed what a catalog-wide change stands for, a newer rebuild follows
+            if (catalogGeneration.get() == generation) {
+                filter = next;
+            }
+        } finally {
+            building = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        rebuilder.shutdownNow();
+    }
+
+    void onWorkspaceChanged(WorkspaceChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isCatalogWide()) {
+            catalogGeneration.incrementAndGet();
+            filter = null;
+            missing.invalidateAll();
+            scheduleRebuild();
+        } else if (event.isDeleted()) {
+            missing.put(event.workspaceId(), Boolean.TRUE);
+        } else {
+            add(event.workspaceId());
+        }
+    }
+
+    private void add(Long workspaceId) {
+        creations.incrementAndGet();
+        // Read in the opposite order rebuild publishes them, so the id reaches the filter that ends up in use
+        LongBloomFilter next = building;
+        LongBloomFilter current = filter;
+        if (next != null) {
+            next.put(workspaceId);
+        }
+        if (current != null && current != next) {
+            current.put(workspaceId);
+            if (current.isSaturated() && next == null) {
+                scheduleRebuild();
+            }
+        }
+        missing.invalidate(workspaceId);
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilder.execute(() -> {
+            rebuildScheduled.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException exception) {
+                log.warn("Could not rebuild the workspace ids", exception);
+            }
+        });
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("workspace.ids.lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package mk.ukim.finki.wp.workspaces.config.cache;
+
+import mk.ukim.finki.wp.workspaces.model.events.UserDeletedEvent;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries workspace invalidations and user deletions to the caches of every application instance. Subscribers on the publishing
+ * instance are called before {@link #publish} returns; other instances receive the message asynchronously.
+ */
+public interface InvalidationBus {
+
+    void publish(WorkspaceChangedEvent event);
+
+    void subscribe(Consumer<WorkspaceChangedEvent> subscriber);
+
+    void publish(UserDeletedEvent event);
+
+    void subscribeToUserDeletions(Consumer<UserDeletedEvent> subscriber);
+
+    /**
+     * Whether changes published on every instance currently reach this instance's subscribers, so state kept up to
+     * date from the bus alone is complete.
+     */
+    boolean reachesEveryInstance();
+}
@@ -0,0 +1,45 @@
+package mk.ukim.finki.wp.workspaces.config.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+/**
+ * Picks the bus with {@code workspace.cache.bus}: {@code local} (the default) only reaches this JVM, {@code postgres}
+ * reaches every instance connected to the same primary database.
+ */
+@Configuration
+public class InvalidationBusConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "workspace.cache.bus", havingValue = "postgres")
+    public PostgresInvalidationBus postgresInvalidationBus(DataSourceProperties properties,
+                                                           JdbcTemplate jdbcTemplate,
+                                                           PlatformTransactionManager transactionManager,
+                                                           @Value("${workspace.cache.channel:workspace_cache}") String channel,
+                                                           @Value("${workspace.cache.poll-interval:1s}") Duration pollInterval,
+                                                           @Value("${workspace.cache.retry-delay:5s}") Duration retryDelay) {
+        return new PostgresInvalidationBus(
+                properties.determineUrl(),
+                properties.determineUsername(),
+                properties.determinePassword(),
+                jdbcTemplate,
+                transactionManager,
+                channel,
+                pollInterval,
+                retryDelay
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "workspace.cache.bus", havingValue = "local", matchIfMissing = true)
+    public LocalInvalidationBus localInvalidationBus(@Value("${workspace.cache.single-instance:false}") boolean singleInstance) {
+        return new LocalInvalidationBus(singleInstance);
+    }
+}
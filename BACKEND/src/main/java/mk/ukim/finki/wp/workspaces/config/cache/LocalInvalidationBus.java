@@ -0,0 +1,68 @@
+package mk.ukim.finki.wp.workspaces.config.cache;
+
+import jakarta.annotation.PreDestroy;
+import mk.ukim.finki.wp.workspaces.model.events.UserDeletedEvent;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidations to every subscriber in this JVM, whichever application context it belongs to.
+ * Enough for a single instance, and lets several contexts in one test JVM behave like separate nodes.
+ * Whether this JVM is the only instance can't be told from here, it is declared with {@code singleInstance}.
+ */
+public class LocalInvalidationBus implements InvalidationBus {
+    private static final Set<Consumer<WorkspaceChangedEvent>> SUBSCRIBERS = new CopyOnWriteArraySet<>();
+    private static final Set<Consumer<UserDeletedEvent>> USER_DELETION_SUBSCRIBERS = new CopyOnWriteArraySet<>();
+
+    private final List<Consumer<WorkspaceChangedEvent>> subscribers = new CopyOnWriteArrayList<>();
+    private final List<Consumer<UserDeletedEvent>> userDeletionSubscribers = new CopyOnWriteArrayList<>();
+    private final boolean singleInstance;
+
+    public LocalInvalidationBus() {
+        this(false);
+    }
+
+    public LocalInvalidationBus(boolean singleInstance) {
+        this.singleInstance = singleInstance;
+    }
+
+    @Override
+    public void publish(WorkspaceChangedEvent event) {
+        SUBSCRIBERS.forEach(subscriber -> subscriber.accept(event));
+    }
+
+    @Override
+    public void subscribe(Consumer<WorkspaceChangedEvent> subscriber) {
+        subscribers.add(subscriber);
+        SUBSCRIBERS.add(subscriber);
+    }
+
+    @Override
+    public void publish(UserDeletedEvent event) {
+        USER_DELETION_SUBSCRIBERS.forEach(subscriber -> subscriber.accept(event));
+    }
+
+    @Override
+    public void subscribeToUserDeletions(Consumer<UserDeletedEvent> subscriber) {
+        userDeletionSubscribers.add(subscriber);
+        USER_DELETION_SUBSCRIBERS.add(subscriber);
+    }
+
+    @Override
+    public boolean reachesEveryInstance() {
+        return singleInstance;
+    }
+
+    @PreDestroy
+    public void close() {
+        SUBSCRIBERS.removeAll(subscribers);
+        subscribers.clear();
+        USER_DELETION_SUBSCRIBERS.removeAll(userDeletionSubscribers);
+        userDeletionSubscribers.clear();
+    }
+}
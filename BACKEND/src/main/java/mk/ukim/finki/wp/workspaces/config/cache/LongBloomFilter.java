@@ -0,0 +1,77 @@
+package mk.ukim.finki.wp.workspaces.config.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over {@code long} keys, safe for concurrent puts and lookups. Sized for
+ * {@code expectedInsertions} at the given false positive rate; past that it keeps working, only with more
+ * false positives, which {@link #isSaturated()} reports so the owner can build a larger one.
+ */
+public class LongBloomFilter {
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final long expectedInsertions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private LongBloomFilter(long bitCount, int hashFunctions, long expectedInsertions) {
+        this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) / 64));
+        this.bitCount = bitCount;
+        this.hashFunctions = hashFunctions;
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public static LongBloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Bloom filter needs at least one insertion and a rate between 0 and 1");
+        }
+        long bitCount = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        return new LongBloomFilter(bitCount, hashFunctions, expectedInsertions);
+    }
+
+    public void put(long key) {
+        long first = mix(key);
+        long second = mix(first) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(first + i * second, bitCount);
+            long mask = 1L << bit;
+            words.getAndAccumulate((int) (bit >>> 6), mask, (word, set) -> word | set);
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * @return {@code false} only when the key was certainly never put
+     */
+    public boolean mightContain(long key) {
+        long first = mix(key);
+        long second = mix(first) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(first + i * second, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isSaturated() {
+        return insertions.get() > expectedInsertions;
+    }
+
+    /**
+     * The false positive rate to expect with the keys put so far, counting a key put twice twice.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashFunctions * insertions.get() / bitCount), hashFunctions);
+    }
+
+    // Finalizer of SplitMix64, spreads sequential ids over the whole range
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,199 @@
+package mk.ukim.finki.wp.workspaces.config.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import mk.ukim.finki.wp.workspaces.model.events.UserDeletedEvent;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Relays invalidations between instances with Postgres {@code LISTEN/NOTIFY} on the primary database.
+ * Notifications only reach connections that are listening at the time, so whenever the listener connection
+ * is (re)established the subscribers are told to drop everything they cached. A user deletion missed that way has
+ * no such catch-all; the caches holding the user expire it after their TTL. The bus reaches every instance from
+ * that catch-all until the connection is lost again.
+ */
+public class PostgresInvalidationBus implements InvalidationBus {
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final String CATALOG = "*";
+    private static final String USER = "user:";
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String channel;
+    private final Duration pollInterval;
+    private final Duration retryDelay;
+    private final String origin = UUID.randomUUID().toString();
+    private final List<Consumer<WorkspaceChangedEvent>> subscribers = new CopyOnWriteArrayList<>();
+    private final List<Consumer<UserDeletedEvent>> userDeletionSubscribers = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private volatile boolean listening;
+
+    public PostgresInvalidationBus(String url, String username, String password,
+                                   JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   String channel, Duration pollInterval, Duration retryDelay) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid invalidation channel name " + channel);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Also called after the surrounding transaction has committed, when its connection can't be reused
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.channel = channel;
+        this.pollInterval = pollInterval;
+        this.retryDelay = retryDelay;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        Thread.ofPlatform().name("workspace-cache-listener").daemon().start(this::listen);
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        listening = false;
+    }
+
+    @Override
+    public void publish(WorkspaceChangedEvent event) {
+        deliver(event);
+        try {
+            notifyOthers(encode(event));
+        } catch (DataAccessException exception) {
+            // The other instances still drop the entry once its TTL has passed
+            log.warn("Could not notify other instances about workspace {}", event.workspaceId(), exception);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<WorkspaceChangedEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public void publish(UserDeletedEvent event) {
+        deliver(event);
+        try {
+            notifyOthers(origin + " " + USER + event.userId() + " " + event.username());
+        } catch (DataAccessException exception) {
+            log.warn("Could not notify other instances about deleted user {}", event.userId(), exception);
+        }
+    }
+
+    @Override
+    public void subscribeToUserDeletions(Consumer<UserDeletedEvent> subscriber) {
+        userDeletionSubscribers.add(subscriber);
+    }
+
+    @Override
+    public boolean reachesEveryInstance() {
+        return listening;
+    }
+
+    private void notifyOthers(String payload) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                "select pg_notify(?, ?)",
+                (ResultSetExtractor<Void>) resultSet -> null,
+                channel, payload
+        ));
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("listen " + channel);
+                deliver(WorkspaceChangedEvent.catalogChanged());
+                listening = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException exception) {
+                listening = false;
+                if (running) {
+                    log.warn("Lost the connection listening on {}, reconnecting in {}", channel, retryDelay, exception);
+                    sleep(retryDelay);
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        // The last part of a user deletion is the username, which may contain spaces
+        String[] parts = payload.split(" ", 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed invalidation {}", payload);
+            return;
+        }
+        if (parts[0].equals(origin)) {
+            return;
+        }
+        try {
+            if (parts[1].startsWith(USER)) {
+                deliver(new UserDeletedEvent(Long.valueOf(parts[1].substring(USER.length())), parts[2]));
+                return;
+            }
+            deliver(parts[1].equals(CATALOG)
+                    ? WorkspaceChangedEvent.catalogChanged()
+                    : new WorkspaceChangedEvent(Long.valueOf(parts[1]), Long.parseLong(parts[2])));
+        } catch (NumberFormatException exception) {
+            log.warn("Ignoring malformed invalidation {}", payload);
+        }
+    }
+
+    private void deliver(WorkspaceChangedEvent event) {
+        subscribers.forEach(subscriber -> subscriber.accept(event));
+    }
+
+    private void deliver(UserDeletedEvent event) {
+        userDeletionSubscribers.forEach(subscriber -> subscriber.accept(event));
+    }
+
+    private String encode(WorkspaceChangedEvent event) {
+        return origin + " " + (event.isCatalogWide() ? CATALOG : event.workspaceId()) + " " + event.version();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
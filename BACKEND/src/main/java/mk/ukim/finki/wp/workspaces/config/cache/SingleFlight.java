@@ -0,0 +1,75 @@
+package mk.ukim.finki.wp.workspaces.config.cache;
+
+import mk.ukim.finki.wp.workspaces.model.exceptions.LoadTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent callers asking for the same key share one load. The first caller runs the load on its own
+ * thread and the others wait for its result, at most {@code timeout}. Nothing is kept once the load finishes,
+ * so a failure is never handed to later callers. A failed load may have failed for reasons of its caller alone,
+ * so the callers that waited on it try once more on a fresh load before giving up.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration timeout;
+
+    public SingleFlight(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        return load(key, loader, true);
+    }
+
+    private V load(K key, Supplier<V> loader, boolean retryFailedLoad) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, flight);
+        if (leader == null) {
+            return lead(key, flight, loader);
+        }
+
+        try {
+            return leader.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException exception) {
+            if (retryFailedLoad) {
+                return load(key, loader, false);
+            }
+            throw rethrow(exception.getCause());
+        } catch (TimeoutException exception) {
+            throw new LoadTimeoutException("Gave up after " + timeout + " waiting for the load of " + key);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new LoadTimeoutException("Interrupted while waiting for the load of " + key);
+        }
+    }
+
+    private V lead(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        // Forgotten before it completes, so a retry after a failure never joins the failed load again
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error failure) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(failure);
+            throw failure;
+        }
+        inFlight.remove(key, flight);
+        flight.complete(value);
+        return value;
+    }
+
+    private static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        return (RuntimeException) failure;
+    }
+}
@@ -0,0 +1,148 @@
+package mk.ukim.finki.wp.workspaces.config.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of workspace views and of the whole catalog, invalidated on every instance through the
+ * {@link InvalidationBus}. An invalidation remembers the version it was sent for, so a view read before the
+ * change but stored after it, or an invalidation arriving after a newer view, can't leave stale data behind.
+ * Entries expire after {@code workspace.cache.ttl} in case an invalidation is lost. Concurrent misses for the
+ * same workspace, or for the catalog, share one load through {@link SingleFlight}.
+ */
+@Component
+public class WorkspaceCatalogCache {
+    private static final String CATALOG = "catalog";
+
+    private final InvalidationBus invalidationBus;
+    private final boolean enabled;
+    private final Cache<Long, WorkspaceView> views;
+    private final Cache<Long, Long> minimumVersions;
+    private final Cache<String, CatalogLoad> catalog;
+    private final AtomicLong catalogGeneration = new AtomicLong();
+    private final SingleFlight<Long, Optional<WorkspaceView>> viewLoads;
+    private final SingleFlight<String, CatalogLoad> catalogLoads;
+
+    public WorkspaceCatalogCache(
+            InvalidationBus invalidationBus,
+            @Value("${workspace.cache.enabled:true}") boolean enabled,
+            @Value("${workspace.cache.maximum-size:10000}") long maximumSize,
+            @Value("${workspace.cache.ttl:5m}") Duration ttl,
+            @Value("${workspace.cache.load-timeout:5s}") Duration loadTimeout,
+            MeterRegistry meterRegistry
+    ) {
+        this.invalidationBus = invalidationBus;
+        this.enabled = enabled;
+        this.viewLoads = new SingleFlight<>(loadTimeout);
+        this.catalogLoads = new SingleFlight<>(loadTimeout);
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.minimumVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.catalog = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "workspaceViews");
+        CaffeineCacheMetrics.monitor(meterRegistry, catalog, "workspaceCatalog");
+        invalidationBus.subscribe(this::invalidate);
+    }
+
+    public Optional<WorkspaceView> findViewById(Long workspaceId, Function<Long, Optional<WorkspaceView>> loader) {
+        if (!enabled) {
+            return loader.apply(workspaceId);
+        }
+        WorkspaceView cached = views.getIfPresent(workspaceId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Long knownVersion = minimumVersions.getIfPresent(workspaceId);
+        AtomicBoolean ownLoad = new AtomicBoolean();
+        Optional<WorkspaceView> loaded = viewLoads.load(workspaceId, () -> {
+            ownLoad.set(true);
+            return loader.apply(workspaceId);
+        });
+        if (!ownLoad.get() && knownVersion != null && loaded.isPresent() && loaded.get().version() < knownVersion) {
+            // Shared from a load that started before a change this caller already knew of, possibly its own
+            loaded = loader.apply(workspaceId);
+        }
+        loaded.ifPresent(view -> views.asMap().compute(workspaceId, (id, current) -> {
+            Long minimumVersion = minimumVersions.getIfPresent(id);
+            if (minimumVersion != null && view.version() < minimumVersion) {
+                return current;
+            }
+            return current == null || current.version() < view.version() ? view : current;
+        }));
+        return loaded;
+    }
+
+    /**
+     * @param changes the count of workspace changes read before this call, a cached catalog read before that many
+     *                changes is not served, so a lost invalidation can't outlive the next change
+     */
+    public List<WorkspaceView> findAllViews(long changes, Supplier<List<WorkspaceView>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CatalogLoad cached = catalog.getIfPresent(CATALOG);
+        if (cached != null && cached.changes() >= changes) {
+            return cached.views();
+        }
+
+        long generation = catalogGeneration.get();
+        CatalogLoad shared = catalogLoads.load(CATALOG, () -> new CatalogLoad(generation, changes, List.copyOf(loader.get())));
+        // A shared load that started before an invalidation, or a change, this caller has seen is read again
+        CatalogLoad loaded = shared.generation() < generation || shared.changes() < changes
+                ? new CatalogLoad(generation, changes, List.copyOf(loader.get()))
+                : shared;
+        // Not stored when an invalidation arrived while it was read
+        catalog.asMap().compute(CATALOG, (key, current) -> catalogGeneration.get() != generation
+                || current != null && current.changes() > loaded.changes() ? current : loaded);
+        return loaded.views();
+    }
+
+    /**
+     * Relayed once the change has committed, so no instance reloads the old row after dropping its copy.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkspaceChanged(WorkspaceChangedEvent event) {
+        invalidationBus.publish(event);
+    }
+
+    void invalidate(WorkspaceChangedEvent event) {
+        catalogGeneration.incrementAndGet();
+        catalog.invalidateAll();
+        if (event.isCatalogWide()) {
+            views.invalidateAll();
+            return;
+        }
+
+        minimumVersions.asMap().merge(event.workspaceId(), event.version(), Math::max);
+        views.asMap().computeIfPresent(event.workspaceId(),
+                (id, current) -> current.version() < event.version() ? null : current);
+    }
+
+    private record CatalogLoad(long generation, long changes, List<WorkspaceView> views) {
+    }
+}
@@ -0,0 +1,47 @@
+package mk.ukim.finki.wp.workspaces.config.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link ReadYourWritesTracker} session for every request, from the write position the client sent in
+ * {@value ReadYourWritesTracker#HEADER}, and returns the position of the request's own writes in the same header.
+ * Runs ahead of the security filters, which already read workspaces.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        try (ReadYourWritesTracker.Session ignored = readYourWritesTracker.open(
+                requiredPosition(request),
+                position -> response.setHeader(ReadYourWritesTracker.HEADER, Long.toString(position)))) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private static Long requiredPosition(HttpServletRequest request) {
+        String header = request.getHeader(ReadYourWritesTracker.HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException exception) {
+            // Not one of ours, the client gets a fresh position with its next write
+            return null;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package mk.ukim.finki.wp.workspaces.config.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Read-your-writes by write position. Once a write commits, the primary's current position in its write-ahead log
+ * is handed to the client in the {@value #HEADER} header. A client that sends the position back with its next
+ * requests has their reads served by the replica only once the replica has replayed up to it, and by the primary
+ * until then. The position travels with the client, so it holds whichever instance handles the next request.
+ * <p>
+ * Positions are read with {@code writePositionQuery} on the primary and {@code replayPositionQuery} on the replica,
+ * both returning a number that grows with the log, by default the Postgres LSNs as byte offsets. A replica
+ * answering {@code null}, as one that is not replaying a primary does, is treated as behind.
+ */
+public class ReadYourWritesTracker {
+    public static final String HEADER = "X-Write-Position";
+    public static final String POSTGRES_WRITE_POSITION = "select pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint";
+    public static final String POSTGRES_REPLAY_POSITION = "select pg_wal_lsn_diff(pg_last_wal_replay_lsn(), '0/0')::bigint";
+
+    private static final Logger log = LoggerFactory.getLogger(ReadYourWritesTracker.class);
+    private static final ThreadLocal<Session> current = new ThreadLocal<>();
+
+    private final JdbcTemplate primary;
+    private final String writePositionQuery;
+    private final String replayPositionQuery;
+    // Highest position the replica reported, positions it covers need no further query
+    private final AtomicLong replayed = new AtomicLong(Long.MIN_VALUE);
+
+    public ReadYourWritesTracker(DataSource primary, String writePositionQuery, String replayPositionQuery) {
+        this.primary = new JdbcTemplate(primary);
+        this.writePositionQuery = writePositionQuery;
+        this.replayPositionQuery = replayPositionQuery;
+    }
+
+    /**
+     * Binds the position the client last wrote at, {@code null} if it sent none, until the returned session is
+     * closed. Positions of writes committed in the meantime are passed to {@code onWrite}.
+     */
+    public Session open(Long requiredPosition, LongConsumer onWrite) {
+        Session session = new Session(requiredPosition == null ? Long.MIN_VALUE : requiredPosition, onWrite,
+                current.get(), Thread.currentThread());
+        current.set(session);
+        return session;
+    }
+
+    /**
+     * Records the write position once the surrounding transaction commits. Safe to call several times within
+     * one transaction, and a no-op outside a session.
+     */
+    public void recordWriteOnCommit() {
+        Session session = current.get();
+        if (session == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(this, session);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    session.wrote(primary.queryForObject(writePositionQuery, Long.class));
+                } catch (DataAccessException exception) {
+                    // The write has committed either way; only this request's reads are kept on the primary
+                    log.warn("Could not read the write position, reading from the primary", exception);
+                    session.requiredPosition = Long.MAX_VALUE;
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReadYourWritesTracker.this);
+            }
+        });
+    }
+
+    /**
+     * Whether {@code replica} has replayed the writes the current session has to see.
+     */
+    public boolean hasReplayed(Connection replica) {
+        Session session = current.get();
+        if (session == null || session.requiredPosition <= replayed.get()) {
+            return true;
+        }
+
+        try (Statement statement = replica.createStatement();
+             ResultSet resultSet = statement.executeQuery(replayPositionQuery)) {
+            if (!resultSet.next()) {
+                return false;
+            }
+            long position = resultSet.getLong(1);
+            if (resultSet.wasNull()) {
+                return false;
+            }
+            return session.requiredPosition <= replayed.accumulateAndGet(position, Math::max);
+        } catch (SQLException exception) {
+            log.warn("Could not read the replica's replay position, reading from the primary", exception);
+            return false;
+        }
+    }
+
+    public static final class Session implements AutoCloseable {
+        private final LongConsumer onWrite;
+        private final Session enclosing;
+        private final Thread owner;
+        private volatile long requiredPosition;
+
+        private Session(long requiredPosition, LongConsumer onWrite, Session enclosing, Thread owner) {
+            this.requiredPosition = requiredPosition;
+            this.onWrite = onWrite;
+            this.enclosing = enclosing;
+            this.owner = owner;
+        }
+
+        private void wrote(Long position) {
+            if (position == null) {
+                requiredPosition = Long.MAX_VALUE;
+                return;
+            }
+            requiredPosition = Math.max(requiredPosition, position);
+            onWrite.accept(requiredPosition);
+        }
+
+        /**
+         * @throws IllegalStateException when closed twice, on another thread, or before a session nested in it
+         */
+        @Override
+        public void close() {
+            if (Thread.currentThread() != owner || current.get() != this) {
+                throw new IllegalStateException("Read-your-writes session closed out of order");
+            }
+            if (enclosing == null) {
+                current.remove();
+            } else {
+                current.set(enclosing);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package mk.ukim.finki.wp.workspaces.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Active once {@code datasource.replica.url} is set. The primary keeps using the regular {@code spring.datasource.*}
+ * settings; the replica only needs its url, and falls back to the primary's credentials.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${datasource.replica.url}") String url,
+                                              @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${datasource.replica.password:${spring.datasource.password:}}") String password,
+                                              @Value("${datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+                                              @Value("${datasource.replica.connection-timeout:2s}") Duration connectionTimeout) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        if (properties.getDriverClassName() != null) {
+            dataSource.setDriverClassName(properties.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+        dataSource.setReadOnly(true);
+        // Start even while the replica is down; reads use the primary until it is back
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                       @Value("${datasource.replica.write-position-query:"
+                                                               + ReadYourWritesTracker.POSTGRES_WRITE_POSITION + "}") String writePositionQuery,
+                                                       @Value("${datasource.replica.replay-position-query:"
+                                                               + ReadYourWritesTracker.POSTGRES_REPLAY_POSITION + "}") String replayPositionQuery) {
+        return new ReadYourWritesTracker(primaryDataSource, writePositionQuery, replayPositionQuery);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWritesTracker));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 @Value("${datasource.replica.retry-after:30s}") Duration retryAfter) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                primaryDataSource,
+                replicaDataSource,
+                readYourWritesTracker,
+                retryAfter,
+                Clock.systemUTC()
+        ));
+    }
+}
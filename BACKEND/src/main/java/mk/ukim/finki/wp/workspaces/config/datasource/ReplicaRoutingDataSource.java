@@ -0,0 +1,75 @@
+package mk.ukim.finki.wp.workspaces.config.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything else.
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so the connection
+ * is only fetched once the transaction's read-only flag is known.
+ * <p>
+ * When the replica cannot be reached its reads fall back to the primary, and the replica is not tried again
+ * for {@code retryAfter}. Reads of a client whose own writes the replica has not replayed yet also go to the
+ * primary, see {@link ReadYourWritesTracker}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Duration retryAfter;
+    private final Clock clock;
+    private volatile long replicaDownUntil;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    DataSource replica,
+                                    ReadYourWritesTracker readYourWritesTracker,
+                                    Duration retryAfter,
+                                    Clock clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.retryAfter = retryAfter;
+        this.clock = clock;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWritesTracker.recordWriteOnCommit();
+            return primary.getConnection();
+        }
+        return clock.millis() >= replicaDownUntil ? replicaOrPrimary() : primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credentials belong to one pool only, so explicit logins always go to the primary
+        return primary.getConnection(username, password);
+    }
+
+    private Connection replicaOrPrimary() throws SQLException {
+        Connection connection;
+        try {
+            connection = replica.getConnection();
+        } catch (SQLException exception) {
+            replicaDownUntil = clock.millis() + retryAfter.toMillis();
+            log.warn("Replica unavailable, reading from the primary for the next {}", retryAfter, exception);
+            return primary.getConnection();
+        }
+        if (readYourWritesTracker.hasReplayed(connection)) {
+            return connection;
+        }
+        connection.close();
+        return primary.getConnection();
+    }
+}
@@ -0,0 +1,9 @@
+package mk.ukim.finki.wp.workspaces.dto;
+
+import java.util.List;
+
+public record CursorPageDto<T>(
+        List<T> items,
+        String nextCursor
+) {
+}
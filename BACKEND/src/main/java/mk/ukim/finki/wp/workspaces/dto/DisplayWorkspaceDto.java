@@ -2,6 +2,7 @@ package mk.ukim.finki.wp.workspaces.dto;
 
 import mk.ukim.finki.wp.workspaces.model.domain.User;
 import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
 
 public record DisplayWorkspaceDto(
         Long id,
@@ -16,6 +17,14 @@ public record DisplayWorkspaceDto(
         );
     }
 
+    public static DisplayWorkspaceDto from(WorkspaceView workspace) {
+        return new DisplayWorkspaceDto(
+                workspace.id(),
+                workspace.name(),
+                workspace.description()
+        );
+    }
+
     public Workspace toWorkspace() {
         return new Workspace(name, description);
     }
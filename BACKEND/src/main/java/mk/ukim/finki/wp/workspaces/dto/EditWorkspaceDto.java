@@ -1,6 +1,7 @@
 package mk.ukim.finki.wp.workspaces.dto;
 
 import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
 
 public record EditWorkspaceDto(
         String name,
@@ -15,6 +16,14 @@ public record EditWorkspaceDto(
         );
     }
 
+    public static EditWorkspaceDto from(WorkspaceView workspace) {
+        return new EditWorkspaceDto(
+                workspace.name(),
+                workspace.description(),
+                true
+        );
+    }
+
     public Workspace toWorkspace() {
         return new Workspace(name, description);
     }
@@ -0,0 +1,28 @@
+package mk.ukim.finki.wp.workspaces.dto;
+
+import mk.ukim.finki.wp.workspaces.model.imports.ImportRowError;
+import mk.ukim.finki.wp.workspaces.model.imports.ImportSummary;
+
+import java.util.List;
+
+public record ImportSummaryDto(
+        long rowsRead,
+        long usersCreated,
+        long workspacesCreated,
+        long membershipsCreated,
+        long rowsRejected,
+        List<ImportRowError> errors,
+        boolean errorsTruncated
+) {
+    public static ImportSummaryDto from(ImportSummary summary) {
+        return new ImportSummaryDto(
+                summary.rowsRead(),
+                summary.usersCreated(),
+                summary.workspacesCreated(),
+                summary.membershipsCreated(),
+                summary.rowsRejected(),
+                summary.errors(),
+                summary.errorsTruncated()
+        );
+    }
+}
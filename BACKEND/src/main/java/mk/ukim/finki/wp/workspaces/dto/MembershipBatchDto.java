@@ -0,0 +1,17 @@
+package mk.ukim.finki.wp.workspaces.dto;
+
+import java.util.List;
+
+/**
+ * Memberships to grant or change the role of, and users whose membership is revoked. A user may appear
+ * at most once across both lists.
+ */
+public record MembershipBatchDto(
+        List<MembershipEntryDto> grant,
+        List<Long> revoke
+) {
+    public MembershipBatchDto {
+        grant = grant == null ? List.of() : grant;
+        revoke = revoke == null ? List.of() : revoke;
+    }
+}
@@ -0,0 +1,19 @@
+package mk.ukim.finki.wp.workspaces.dto;
+
+import mk.ukim.finki.wp.workspaces.model.memberships.MembershipBatchResult;
+
+import java.util.List;
+
+public record MembershipBatchResultDto(
+        int granted,
+        int revoked,
+        List<Long> unknownUserIds
+) {
+    public static MembershipBatchResultDto from(MembershipBatchResult result) {
+        return new MembershipBatchResultDto(
+                result.granted(),
+                result.revoked(),
+                result.unknownUserIds()
+        );
+    }
+}
@@ -0,0 +1,9 @@
+package mk.ukim.finki.wp.workspaces.dto;
+
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+
+public record MembershipEntryDto(
+        Long userId,
+        Role role
+) {
+}
@@ -3,6 +3,7 @@ package mk.ukim.finki.wp.workspaces.dto;
 import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
 import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
 import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceWithRoleView;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -22,6 +23,15 @@ public record WorkspaceWithRoleDto(
         );
     }
 
+    public static WorkspaceWithRoleDto from(WorkspaceWithRoleView workspace) {
+        return new WorkspaceWithRoleDto(
+                workspace.id(),
+                workspace.name(),
+                workspace.description(),
+                workspace.role()
+        );
+    }
+
     public static List<WorkspaceWithRoleDto> from(List<UserWorkspace> workspaces) {
         return workspaces.stream().map(WorkspaceWithRoleDto::from).collect(Collectors.toList());
     }
@@ -4,35 +4,54 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
-import mk.ukim.finki.wp.workspaces.model.exceptions.AccessDeniedException;
-import mk.ukim.finki.wp.workspaces.security.JwtConstants;
-import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import mk.ukim.finki.wp.workspaces.model.context.ResolvedWorkspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.exceptions.LoadTimeoutException;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
+import mk.ukim.finki.wp.workspaces.security.JwtClaims;
+import mk.ukim.finki.wp.workspaces.security.WorkspaceAccess;
+import mk.ukim.finki.wp.workspaces.service.domain.MembershipVersionService;
 import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceService;
-import org.springframework.security.core.parameters.P;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Component
 public class WorkspaceAccessFilter extends OncePerRequestFilter {
-    private final JwtHelper jwtHelper;
+    private static final String ROUTE_ATTRIBUTE = WorkspaceAccessFilter.class.getName() + ".ROUTE";
+    private static final String WORKSPACE_ID_ATTRIBUTE = WorkspaceAccessFilter.class.getName() + ".WORKSPACE_ID";
+
+    static final List<WorkspaceRoute> ROUTES = List.of(
+            new WorkspaceRoute("/api/workspace/", "", null, "open it"),
+            new WorkspaceRoute("/api/workspace/edit/", "", Role.ROLE_ADMIN, "edit it"),
+            new WorkspaceRoute("/api/workspace/", "/members:batch", Role.ROLE_ADMIN, "manage its members")
+    );
+
     private final WorkspaceService workspaceService;
+    private final MembershipVersionService membershipVersionService;
 
-    public WorkspaceAccessFilter(JwtHelper jwtHelper, WorkspaceService workspaceService) {
-        this.jwtHelper = jwtHelper;
+    public WorkspaceAccessFilter(WorkspaceService workspaceService, MembershipVersionService membershipVersionService) {
         this.workspaceService = workspaceService;
+        this.membershipVersionService = membershipVersionService;
     }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
-        return !(path.matches("/api/workspace/\\d+") || path.matches("/api/workspace/edit/\\d+"));
+        for (WorkspaceRoute route : ROUTES) {
+            long workspaceId = route.match(path);
+            // An id too large to resolve is still filtered, and rejected there, rather than let through unchecked
+            if (workspaceId != WorkspaceRoute.NO_MATCH) {
+                request.setAttribute(ROUTE_ATTRIBUTE, route);
+                request.setAttribute(WORKSPACE_ID_ATTRIBUTE, workspaceId);
+                return false;
+            }
+        }
+        return true;
     }
 
 
@@ -42,83 +61,64 @@ public class WorkspaceAccessFilter extends OncePerRequestFilter {
             HttpServletResponse response,
             FilterChain filterChain)
             throws ServletException, IOException {
-        String path = request.getRequestURI();
+        WorkspaceRoute route = (WorkspaceRoute) request.getAttribute(ROUTE_ATTRIBUTE);
+        long workspaceId = (Long) request.getAttribute(WORKSPACE_ID_ATTRIBUTE);
+        if (workspaceId == WorkspaceRoute.INVALID_ID) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.getWriter().write("Invalid workspace id");
+            return;
+        }
 
+        Optional<JwtClaims> jwtClaims = JwtClaims.from(request);
+        if (jwtClaims.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.getWriter().write("Missing or invalid Authorization header");
+            return;
+        }
 
-        if (path.matches("/api/workspace/\\d+")) {
-            String authHeader = request.getHeader("Authorization");
-
-            if (authHeader != null && authHeader.startsWith(JwtConstants.TOKEN_PREFIX)) {
-                String token = authHeader.substring(JwtConstants.TOKEN_PREFIX.length());
-                Map<Long, String> claims = jwtHelper.extractWorkspaceAccess(token);
-
-                Pattern pattern = Pattern.compile("/api/workspace/(\\d+)");
-                Matcher matcher = pattern.matcher(path);
-
-                if (matcher.find()) {
-                    Long workspaceId = Long.parseLong(matcher.group(1));
-                    Optional<Workspace> workspace = workspaceService.findById(workspaceId);
-
-                    if (workspace.isEmpty()) {
-                        response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-                        response.getWriter().write("Workspace does not exists ");
-                        return;
-                    }
-
-                    if (!claims.containsKey(workspaceId)) {
-//                        throw new AccessDeniedException("Access denied: you don't have permission for the workspace " + workspace.get().getName(), HttpServletResponse.SC_FORBIDDEN);
-                        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                        response.getWriter().write("Access denied: you don't have permission for the workspace " + workspace.get().getName());
-                        return;
-                    }
-                }
-            } else {
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.getWriter().write("Missing or invalid Authorization header");
-                return;
-            }
-        } else if (path.matches("/api/workspace/edit/\\d+")) {
-            String authHeader = request.getHeader("Authorization");
-
-            if (authHeader != null && authHeader.startsWith(JwtConstants.TOKEN_PREFIX)) {
-                String token = authHeader.substring(JwtConstants.TOKEN_PREFIX.length());
-                Map<Long, String> claims = jwtHelper.extractWorkspaceAccess(token);
-
-                Pattern pattern = Pattern.compile("/api/workspace/edit/(\\d+)");
-                Matcher matcher = pattern.matcher(path);
-
-                if (matcher.find()) {
-                    Long workspaceId = Long.parseLong(matcher.group(1));
-                    Optional<Workspace> workspace = workspaceService.findById(workspaceId);
-
-                    if (workspace.isEmpty()) {
-                        response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-                        response.getWriter().write("Workspace does not exists ");
-                        return;
-                    }
-
-                    if (!claims.containsKey(workspaceId)) {
-                        //TODO throw exception with custom message to be catched in the GlobalExceptionHandler
-//                        throw new AccessDeniedException("Access denied: you don't have permission for the workspace " + workspace.get().getName(), HttpServletResponse.SC_FORBIDDEN);
-                        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                        response.getWriter().write("Access denied: you don't have permission for the workspace " + workspace.get().getName());
-                        return;
-                    }
-
-                    String role = claims.get(workspaceId);
-                    if (role == null || !role.equalsIgnoreCase("ROLE_ADMIN")) {
-                        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                        response.getWriter().write("Access denied: you must be an ADMIN for workspace " + workspace.get().getName() + " to edit it");
-                        return;
-                    }
-                }
-            } else {
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.getWriter().write("Missing or invalid Authorization header");
-                return;
-            }
+        if (isOutdated(jwtClaims.get())) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.getWriter().write("Your workspace access has changed, please log in again");
+            return;
         }
 
+        Optional<WorkspaceView> workspace;
+        try {
+            workspace = workspaceService.findViewById(workspaceId);
+        } catch (LoadTimeoutException exception) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.getWriter().write("Workspace lookup timed out, please retry");
+            return;
+        }
+        if (workspace.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            response.getWriter().write("Workspace does not exists ");
+            return;
+        }
+
+        WorkspaceAccess claims = jwtClaims.get().workspaceAccess();
+        Role role = claims.roleOf(workspaceId);
+        if (role == null) {
+            //TODO throw exception with custom message to be catched in the GlobalExceptionHandler
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            response.getWriter().write("Access denied: you don't have permission for the workspace " + workspace.get().name());
+            return;
+        }
+
+        if (route.requiredRole() != null && role != route.requiredRole()) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.getWriter().write("Access denied: you must be an " + route.requiredRole().name().substring("ROLE_".length())
+                    + " for workspace " + workspace.get().name() + " to " + route.action());
+            return;
+        }
+
+        ResolvedWorkspace.attach(request, new ResolvedWorkspace(workspace.get(), role));
         filterChain.doFilter(request, response);
     }
+
+    private boolean isOutdated(JwtClaims claims) {
+        return claims.userId() == null
+                || claims.isMembershipOutdated(membershipVersionService.currentVersion(claims.userId()));
+    }
 }
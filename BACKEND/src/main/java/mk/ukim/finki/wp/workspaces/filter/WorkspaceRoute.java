@@ -0,0 +1,53 @@
+package mk.ukim.finki.wp.workspaces.filter;
+
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+
+/**
+ * A workspace scoped endpoint of the form {@code prefix + {id} + suffix}, together with the role the
+ * caller needs in that workspace. A {@code null} role means any membership is enough.
+ */
+public record WorkspaceRoute(
+        String prefix,
+        String suffix,
+        Role requiredRole,
+        String action
+) {
+    static final long NO_MATCH = -1L;
+    /**
+     * The path has this route's shape, but its id does not fit a {@code long}.
+     */
+    static final long INVALID_ID = -2L;
+
+    /**
+     * Returns the workspace id if the path matches this route, {@link #INVALID_ID} if the id segment is all
+     * digits but too large, or {@link #NO_MATCH}. Leading zeros are accepted, as Spring accepts them when
+     * binding the path variable. Runs in a single pass over the path without regular expressions or allocation.
+     */
+    public long match(String path) {
+        if (!path.startsWith(prefix)) {
+            return NO_MATCH;
+        }
+
+        int end = path.length() - suffix.length();
+        if (end <= prefix.length() || !path.startsWith(suffix, end)) {
+            return NO_MATCH;
+        }
+
+        long id = 0;
+        boolean overflow = false;
+        for (int i = prefix.length(); i < end; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_MATCH;
+            }
+            int digit = c - '0';
+            if (id > (Long.MAX_VALUE - digit) / 10) {
+                // Keeps scanning, a later non-digit still makes it another route's path
+                overflow = true;
+            } else {
+                id = id * 10 + digit;
+            }
+        }
+        return overflow ? INVALID_ID : id;
+    }
+}
@@ -0,0 +1,75 @@
+package mk.ukim.finki.wp.workspaces.imports;
+
+import mk.ukim.finki.wp.workspaces.model.exceptions.InvalidImportRowException;
+import mk.ukim.finki.wp.workspaces.model.imports.ImportRow;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads comma separated rows whose columns are named by the first line, e.g.
+ * {@code type,username,email,password,workspace,role}. Fields may be quoted with {@code "}, doubling
+ * it to escape; a quoted field cannot span lines.
+ */
+public class CsvImportRowReader extends LineImportRowReader {
+    private List<String> header;
+
+    public CsvImportRowReader(Reader reader, int maxLineLength) {
+        super(reader, maxLineLength);
+    }
+
+    @Override
+    protected ImportRow parse(long lineNumber, String text) {
+        List<String> values = split(lineNumber, text);
+        if (header == null) {
+            header = values.stream()
+                    .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                    .toList();
+            return null;
+        }
+        if (values.size() > header.size()) {
+            throw new InvalidImportRowException(lineNumber, "Expected at most " + header.size() + " columns");
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return toRow(lineNumber, fields);
+    }
+
+    private static List<String> split(long lineNumber, String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"' && value.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new InvalidImportRowException(lineNumber, "Unterminated quoted field");
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
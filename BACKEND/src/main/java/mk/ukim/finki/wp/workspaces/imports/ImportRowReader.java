@@ -0,0 +1,20 @@
+package mk.ukim.finki.wp.workspaces.imports;
+
+import mk.ukim.finki.wp.workspaces.model.imports.ImportRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads import rows one at a time from an underlying stream, so an import never holds more than
+ * a single row of its input in memory.
+ */
+public interface ImportRowReader extends Closeable {
+
+    /**
+     * Returns the next row, or {@code null} once the input is exhausted. A row that cannot be parsed
+     * or validated is reported with an {@link mk.ukim.finki.wp.workspaces.model.exceptions.InvalidImportRowException};
+     * reading may continue with the following row.
+     */
+    ImportRow next() throws IOException;
+}
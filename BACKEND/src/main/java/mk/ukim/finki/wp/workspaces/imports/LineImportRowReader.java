@@ -0,0 +1,146 @@
+package mk.ukim.finki.wp.workspaces.imports;
+
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.exceptions.InvalidImportRowException;
+import mk.ukim.finki.wp.workspaces.model.imports.ImportRow;
+import mk.ukim.finki.wp.workspaces.model.imports.MembershipImportRow;
+import mk.ukim.finki.wp.workspaces.model.imports.UserImportRow;
+import mk.ukim.finki.wp.workspaces.model.imports.WorkspaceImportRow;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Base for formats with one row per line. Lines are read through a fixed buffer and rejected once
+ * they grow past {@code maxLineLength}, so a malformed input cannot make a single row arbitrarily large.
+ */
+abstract class LineImportRowReader implements ImportRowReader {
+    private final Reader reader;
+    private final int maxLineLength;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder line = new StringBuilder();
+    private int position;
+    private int limit;
+    private long lineNumber;
+
+    LineImportRowReader(Reader reader, int maxLineLength) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        while (true) {
+            String text = readLine();
+            if (text == null) {
+                return null;
+            }
+            if (!text.isBlank()) {
+                ImportRow row = parse(lineNumber, text);
+                if (row != null) {
+                    return row;
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses one non-blank line, returning {@code null} for lines that carry no row, such as a header.
+     */
+    protected abstract ImportRow parse(long lineNumber, String text);
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String readLine() throws IOException {
+        line.setLength(0);
+        boolean tooLong = false;
+        while (true) {
+            if (position == limit) {
+                limit = reader.read(buffer);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    if (line.isEmpty() && !tooLong) {
+                        return null;
+                    }
+                    break;
+                }
+            }
+            char c = buffer[position++];
+            if (c == '\n') {
+                break;
+            }
+            if (!tooLong) {
+                line.append(c);
+                tooLong = line.length() > maxLineLength;
+            }
+        }
+        lineNumber++;
+        if (tooLong) {
+            throw new InvalidImportRowException(lineNumber, "Row is longer than " + maxLineLength + " characters");
+        }
+        int end = line.length();
+        if (end > 0 && line.charAt(end - 1) == '\r') {
+            end--;
+        }
+        return line.substring(0, end);
+    }
+
+    /**
+     * Validates the named fields of one row. Shared by every format so they accept exactly the same rows.
+     */
+    static ImportRow toRow(long lineNumber, Map<String, String> fields) {
+        String type = field(fields, "type");
+        if (type == null) {
+            throw new InvalidImportRowException(lineNumber, "Missing type");
+        }
+        return switch (type.toLowerCase(Locale.ROOT)) {
+            case "user" -> new UserImportRow(
+                    lineNumber,
+                    required(lineNumber, fields, "username"),
+                    required(lineNumber, fields, "email"),
+                    required(lineNumber, fields, "password")
+            );
+            case "workspace" -> new WorkspaceImportRow(
+                    lineNumber,
+                    field(fields, "key"),
+                    required(lineNumber, fields, "name"),
+                    field(fields, "description")
+            );
+            case "membership" -> new MembershipImportRow(
+                    lineNumber,
+                    required(lineNumber, fields, "username"),
+                    required(lineNumber, fields, "workspace"),
+                    role(lineNumber, required(lineNumber, fields, "role"))
+            );
+            default -> throw new InvalidImportRowException(lineNumber, "Unknown type " + type);
+        };
+    }
+
+    private static String field(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String required(long lineNumber, Map<String, String> fields, String name) {
+        String value = field(fields, name);
+        if (value == null) {
+            throw new InvalidImportRowException(lineNumber, "Missing " + name);
+        }
+        return value;
+    }
+
+    private static Role role(long lineNumber, String value) {
+        String name = value.toUpperCase(Locale.ROOT);
+        try {
+            return Role.valueOf(name.startsWith("ROLE_") ? name : "ROLE_" + name);
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidImportRowException(lineNumber, "Unknown role " + value);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package mk.ukim.finki.wp.workspaces.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mk.ukim.finki.wp.workspaces.model.exceptions.InvalidImportRowException;
+import mk.ukim.finki.wp.workspaces.model.imports.ImportRow;
+
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads one JSON object per line, e.g. {@code {"type":"user","username":"ana","email":"ana@example.com","password":"secret"}}.
+ */
+public class NdjsonImportRowReader extends LineImportRowReader {
+    private final ObjectMapper objectMapper;
+
+    public NdjsonImportRowReader(Reader reader, int maxLineLength, ObjectMapper objectMapper) {
+        super(reader, maxLineLength);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected ImportRow parse(long lineNumber, String text) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException exception) {
+            throw new InvalidImportRowException(lineNumber, "Malformed JSON");
+        }
+        if (!node.isObject()) {
+            throw new InvalidImportRowException(lineNumber, "Expected a JSON object");
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        node.fields().forEachRemaining(field -> {
+            if (field.getValue().isValueNode() && !field.getValue().isNull()) {
+                fields.put(field.getKey(), field.getValue().asText());
+            }
+        });
+        return toRow(lineNumber, fields);
+    }
+}
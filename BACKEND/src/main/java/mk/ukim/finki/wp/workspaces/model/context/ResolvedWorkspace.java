@@ -0,0 +1,37 @@
+package mk.ukim.finki.wp.workspaces.model.context;
+
+import jakarta.servlet.http.HttpServletRequest;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Workspace and caller role resolved by the access filter, handed to the service layer so the same
+ * rows are not loaded again later in the request.
+ */
+public record ResolvedWorkspace(
+        WorkspaceView workspace,
+        Role role
+) {
+    private static final String ATTRIBUTE = ResolvedWorkspace.class.getName();
+
+    public static void attach(HttpServletRequest request, ResolvedWorkspace resolvedWorkspace) {
+        request.setAttribute(ATTRIBUTE, resolvedWorkspace);
+    }
+
+    public static Optional<ResolvedWorkspace> current(Long workspaceId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+
+        ResolvedWorkspace resolved = (ResolvedWorkspace) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (resolved == null || !resolved.workspace().id().equals(workspaceId)) {
+            return Optional.empty();
+        }
+        return Optional.of(resolved);
+    }
+}
@@ -1,18 +1,52 @@
 package mk.ukim.finki.wp.workspaces.model.context;
 
-public class WorkspaceContext {
+/**
+ * The workspace the current request acts on, bound for a bounded extent in the manner of {@code ScopedValue}:
+ * {@link #bind} makes it visible until the returned scope is closed, which restores the enclosing binding.
+ * Nothing outlives the scope, so a pooled or virtual thread never carries one request's workspace into the next.
+ */
+public final class WorkspaceContext {
 
-    private static final ThreadLocal<Long> currentWorkspaceId = new ThreadLocal<>();
+    private static final ThreadLocal<Scope> current = new ThreadLocal<>();
 
-    public static void setCurrentWorkspaceId(Long id) {
-        currentWorkspaceId.set(id);
+    private WorkspaceContext() {
+    }
+
+    public static Scope bind(Long workspaceId) {
+        Scope scope = new Scope(workspaceId, current.get(), Thread.currentThread());
+        current.set(scope);
+        return scope;
     }
 
     public static Long getCurrentWorkspaceId() {
-        return currentWorkspaceId.get();
+        Scope scope = current.get();
+        return scope == null ? null : scope.workspaceId;
     }
 
-    public static void clear() {
-        currentWorkspaceId.remove();
+    public static final class Scope implements AutoCloseable {
+        private final Long workspaceId;
+        private final Scope enclosing;
+        private final Thread owner;
+
+        private Scope(Long workspaceId, Scope enclosing, Thread owner) {
+            this.workspaceId = workspaceId;
+            this.enclosing = enclosing;
+            this.owner = owner;
+        }
+
+        /**
+         * @throws IllegalStateException when closed twice, on another thread, or before a scope nested in it
+         */
+        @Override
+        public void close() {
+            if (Thread.currentThread() != owner || current.get() != this) {
+                throw new IllegalStateException("Workspace context closed out of order");
+            }
+            if (enclosing == null) {
+                current.remove();
+            } else {
+                current.set(enclosing);
+            }
+        }
     }
 }
@@ -0,0 +1,23 @@
+package mk.ukim.finki.wp.workspaces.model.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A named count of committed changes, shared by every instance through the database.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+public class ChangeCounter {
+    @Id
+    private String name;
+    private long changes;
+
+    public ChangeCounter(String name, long changes) {
+        this.name = name;
+        this.changes = changes;
+    }
+}
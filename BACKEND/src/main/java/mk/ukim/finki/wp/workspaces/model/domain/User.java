@@ -2,8 +2,14 @@ package mk.ukim.finki.wp.workspaces.model.domain;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import mk.ukim.finki.wp.workspaces.model.context.WorkspaceContext;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,19 +21,35 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "workspaceUser")
+@NaturalIdCache(region = "workspaceUserByUsername")
 @Data
 @NoArgsConstructor
-@Table(name = "workspace_user")
+@Table(name = "workspace_user", indexes = {
+        @Index(name = "ux_workspace_user_username", columnList = "username", unique = true)
+})
 public class User implements UserDetails {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workspace_user_seq")
+    @SequenceGenerator(name = "workspace_user_seq", sequenceName = "workspace_user_seq", allocationSize = 50)
     private Long id;
 
+    @NaturalId(mutable = true)
     private String username;
     private String email;
     private String password;
 
+    /**
+     * Incremented on every change to the user's workspace memberships and embedded in issued tokens,
+     * so tokens carrying outdated workspace roles can be recognised without loading the memberships.
+     */
+    @Column(nullable = false)
+    private Long membershipVersion = 0L;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<UserWorkspace> userWorkspaces = new ArrayList<>();
 
     public User(String username, String email, String password) {
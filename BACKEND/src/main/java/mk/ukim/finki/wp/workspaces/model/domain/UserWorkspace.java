@@ -4,13 +4,22 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "userWorkspace")
 @Data
 @NoArgsConstructor
+@Table(indexes = {
+        @Index(name = "ux_user_workspace_user_workspace", columnList = "user_id, workspace_id", unique = true),
+        @Index(name = "ix_user_workspace_workspace_role", columnList = "workspace_id, role")
+})
 public class UserWorkspace {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_workspace_seq")
+    @SequenceGenerator(name = "user_workspace_seq", sequenceName = "user_workspace_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
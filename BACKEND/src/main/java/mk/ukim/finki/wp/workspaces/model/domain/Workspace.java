@@ -1,27 +1,81 @@
 package mk.ukim.finki.wp.workspaces.model.domain;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.domain.AfterDomainEventPublication;
+import org.springframework.data.domain.DomainEvents;
+
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "workspace")
 @Data
 @NoArgsConstructor
 public class Workspace {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workspace_seq")
+    @SequenceGenerator(name = "workspace_seq", sequenceName = "workspace_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String description;
 
+    /**
+     * Incremented on every edit; guards conditional edits and is the source of the workspace's ETag.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Set while the workspace's memberships are purged in the background, see WorkspaceDeletionService.
+     */
+    private boolean pendingDelete;
+
     @OneToMany(mappedBy = "workspace", cascade = CascadeType.ALL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<UserWorkspace> userWorkspaces;
 
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private boolean created;
+
     public Workspace(String name, String description) {
         this.name = name;
         this.description = description;
         this.userWorkspaces = new ArrayList<>();
     }
-}
\ No newline at end of file
+
+    @PrePersist
+    void markCreated() {
+        created = true;
+    }
+
+    /**
+     * Published by the repository after {@code save}, so every instance learns the new id exists. Imports persist
+     * their workspaces directly and announce each batch with one catalog-wide change instead.
+     */
+    @DomainEvents
+    Collection<WorkspaceChangedEvent> domainEvents() {
+        return created ? List.of(WorkspaceChangedEvent.created(id)) : List.of();
+    }
+
+    @AfterDomainEventPublication
+    void clearDomainEvents() {
+        created = false;
+    }
+}
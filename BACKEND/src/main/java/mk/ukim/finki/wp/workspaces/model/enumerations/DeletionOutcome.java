@@ -0,0 +1,7 @@
+package mk.ukim.finki.wp.workspaces.model.enumerations;
+
+public enum DeletionOutcome {
+    DELETED,
+    SCHEDULED,
+    NOT_FOUND
+}
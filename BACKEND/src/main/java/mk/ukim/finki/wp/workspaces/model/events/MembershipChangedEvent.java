@@ -0,0 +1,11 @@
+package mk.ukim.finki.wp.workspaces.model.events;
+
+import java.util.Set;
+
+public record MembershipChangedEvent(
+        Set<Long> userIds
+) {
+    public MembershipChangedEvent {
+        userIds = Set.copyOf(userIds);
+    }
+}
@@ -0,0 +1,7 @@
+package mk.ukim.finki.wp.workspaces.model.events;
+
+public record UserDeletedEvent(
+        Long userId,
+        String username
+) {
+}
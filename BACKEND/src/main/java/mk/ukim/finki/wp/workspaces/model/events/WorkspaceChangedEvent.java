@@ -0,0 +1,34 @@
+package mk.ukim.finki.wp.workspaces.model.events;
+
+/**
+ * A workspace was created, edited or deleted; copies of it older than {@code version} are stale. A {@code null}
+ * workspace id stands for a change to the catalog as a whole, such as imported workspaces.
+ */
+public record WorkspaceChangedEvent(
+        Long workspaceId,
+        long version
+) {
+    public static WorkspaceChangedEvent created(Long workspaceId) {
+        return new WorkspaceChangedEvent(workspaceId, 0);
+    }
+
+    public static WorkspaceChangedEvent edited(Long workspaceId, long version) {
+        return new WorkspaceChangedEvent(workspaceId, version);
+    }
+
+    public static WorkspaceChangedEvent deleted(Long workspaceId) {
+        return new WorkspaceChangedEvent(workspaceId, Long.MAX_VALUE);
+    }
+
+    public static WorkspaceChangedEvent catalogChanged() {
+        return new WorkspaceChangedEvent(null, 0);
+    }
+
+    public boolean isCatalogWide() {
+        return workspaceId == null;
+    }
+
+    public boolean isDeleted() {
+        return version == Long.MAX_VALUE;
+    }
+}
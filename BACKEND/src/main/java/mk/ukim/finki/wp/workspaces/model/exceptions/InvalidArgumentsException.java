@@ -5,4 +5,8 @@ public class InvalidArgumentsException extends RuntimeException {
     public InvalidArgumentsException() {
         super("Invalid arguments exception");
     }
+
+    public InvalidArgumentsException(String message) {
+        super(message);
+    }
 }
@@ -0,0 +1,14 @@
+package mk.ukim.finki.wp.workspaces.model.exceptions;
+
+public class InvalidImportRowException extends RuntimeException {
+    private final long line;
+
+    public InvalidImportRowException(long line, String message) {
+        super(message);
+        this.line = line;
+    }
+
+    public long getLine() {
+        return line;
+    }
+}
@@ -0,0 +1,7 @@
+package mk.ukim.finki.wp.workspaces.model.exceptions;
+
+public class LoadTimeoutException extends RuntimeException {
+    public LoadTimeoutException(String message) {
+        super(message);
+    }
+}
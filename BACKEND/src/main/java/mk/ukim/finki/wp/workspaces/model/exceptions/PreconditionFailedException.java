@@ -0,0 +1,7 @@
+package mk.ukim.finki.wp.workspaces.model.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -19,17 +19,14 @@ public class WorkspaceContextFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        try {
-            String workspaceIdHeader = request.getHeader("X-Workspace-Id");
-
-            if (workspaceIdHeader != null) {
-                Long workspaceId = Long.parseLong(workspaceIdHeader);
-                WorkspaceContext.setCurrentWorkspaceId(workspaceId);
-            }
+        String workspaceIdHeader = request.getHeader("X-Workspace-Id");
+        if (workspaceIdHeader == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
+        try (WorkspaceContext.Scope ignored = WorkspaceContext.bind(Long.parseLong(workspaceIdHeader))) {
             filterChain.doFilter(request, response);
-        } finally {
-            WorkspaceContext.clear();
         }
     }
 }
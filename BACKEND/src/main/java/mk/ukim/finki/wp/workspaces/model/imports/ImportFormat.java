@@ -0,0 +1,5 @@
+package mk.ukim.finki.wp.workspaces.model.imports;
+
+public enum ImportFormat {
+    NDJSON, CSV
+}
@@ -0,0 +1,13 @@
+package mk.ukim.finki.wp.workspaces.model.imports;
+
+/**
+ * One validated row of a bulk import. Rows are written in the order they are read, so a membership
+ * may refer to users and workspaces created by earlier rows of the same import.
+ */
+public sealed interface ImportRow permits UserImportRow, WorkspaceImportRow, MembershipImportRow {
+
+    /**
+     * The 1-based line of the input the row was read from, used when reporting errors.
+     */
+    long line();
+}
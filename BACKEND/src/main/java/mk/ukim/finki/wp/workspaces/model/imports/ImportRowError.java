@@ -0,0 +1,7 @@
+package mk.ukim.finki.wp.workspaces.model.imports;
+
+public record ImportRowError(
+        long line,
+        String message
+) {
+}
@@ -0,0 +1,21 @@
+package mk.ukim.finki.wp.workspaces.model.imports;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code errors} holds at most the configured number of row errors;
+ * {@code rowsRejected} counts all of them.
+ */
+public record ImportSummary(
+        long rowsRead,
+        long usersCreated,
+        long workspacesCreated,
+        long membershipsCreated,
+        long rowsRejected,
+        List<ImportRowError> errors,
+        boolean errorsTruncated
+) {
+    public ImportSummary {
+        errors = List.copyOf(errors);
+    }
+}
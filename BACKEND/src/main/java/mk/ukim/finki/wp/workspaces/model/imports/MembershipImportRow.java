@@ -0,0 +1,15 @@
+package mk.ukim.finki.wp.workspaces.model.imports;
+
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+
+/**
+ * A membership to create. {@code workspace} is either the key of a workspace imported earlier
+ * or the id of an existing one.
+ */
+public record MembershipImportRow(
+        long line,
+        String username,
+        String workspace,
+        Role role
+) implements ImportRow {
+}
@@ -0,0 +1,9 @@
+package mk.ukim.finki.wp.workspaces.model.imports;
+
+public record UserImportRow(
+        long line,
+        String username,
+        String email,
+        String password
+) implements ImportRow {
+}
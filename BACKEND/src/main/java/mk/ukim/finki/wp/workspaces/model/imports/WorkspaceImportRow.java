@@ -0,0 +1,13 @@
+package mk.ukim.finki.wp.workspaces.model.imports;
+
+/**
+ * A workspace to create. The optional {@code key} names the workspace for later membership rows
+ * of the same import, since its id is not known to the client.
+ */
+public record WorkspaceImportRow(
+        long line,
+        String key,
+        String name,
+        String description
+) implements ImportRow {
+}
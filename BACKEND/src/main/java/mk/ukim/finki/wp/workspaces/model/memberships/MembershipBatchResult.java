@@ -0,0 +1,13 @@
+package mk.ukim.finki.wp.workspaces.model.memberships;
+
+import java.util.List;
+
+public record MembershipBatchResult(
+        int granted,
+        int revoked,
+        List<Long> unknownUserIds
+) {
+    public MembershipBatchResult {
+        unknownUserIds = List.copyOf(unknownUserIds);
+    }
+}
@@ -0,0 +1,44 @@
+package mk.ukim.finki.wp.workspaces.model.pagination;
+
+import mk.ukim.finki.wp.workspaces.model.exceptions.InvalidArgumentsException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in an id ordered listing. Clients only see the encoded form, so the key layout can
+ * change without breaking continuation tokens they already hold, as long as the version prefix does.
+ */
+public record KeysetCursor(
+        long afterId
+) {
+    private static final String PREFIX = "v1:";
+
+    public static final KeysetCursor START = new KeysetCursor(0L);
+
+    public KeysetCursor {
+        if (afterId < 0) {
+            throw new InvalidArgumentsException("Invalid page cursor");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + afterId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new InvalidArgumentsException("Invalid page cursor");
+            }
+            return new KeysetCursor(Long.parseLong(decoded.substring(PREFIX.length())));
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidArgumentsException("Invalid page cursor");
+        }
+    }
+}
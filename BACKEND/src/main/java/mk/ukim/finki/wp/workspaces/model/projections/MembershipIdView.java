@@ -0,0 +1,7 @@
+package mk.ukim.finki.wp.workspaces.model.projections;
+
+public record MembershipIdView(
+        Long id,
+        Long userId
+) {
+}
@@ -0,0 +1,9 @@
+package mk.ukim.finki.wp.workspaces.model.projections;
+
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+
+public record WorkspaceRoleView(
+        Long workspaceId,
+        Role role
+) {
+}
@@ -0,0 +1,9 @@
+package mk.ukim.finki.wp.workspaces.model.projections;
+
+public record WorkspaceView(
+        Long id,
+        String name,
+        String description,
+        Long version
+) {
+}
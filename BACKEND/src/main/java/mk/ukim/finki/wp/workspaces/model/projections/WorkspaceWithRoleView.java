@@ -0,0 +1,12 @@
+package mk.ukim.finki.wp.workspaces.model.projections;
+
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+
+public record WorkspaceWithRoleView(
+        Long id,
+        String name,
+        String description,
+        Role role,
+        Long version
+) {
+}
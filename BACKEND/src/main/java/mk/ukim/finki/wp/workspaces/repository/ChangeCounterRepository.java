@@ -0,0 +1,24 @@
+package mk.ukim.finki.wp.workspaces.repository;
+
+import mk.ukim.finki.wp.workspaces.model.domain.ChangeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+@Transactional(readOnly = true)
+public interface ChangeCounterRepository extends JpaRepository<ChangeCounter, String> {
+
+    @Query("select c.changes from ChangeCounter c where c.name = :name")
+    Optional<Long> findChangesByName(@Param("name") String name);
+
+    @Transactional
+    @Modifying
+    @Query("update ChangeCounter c set c.changes = c.changes + 1 where c.name = :name")
+    int increment(@Param("name") String name);
+}
@@ -0,0 +1,14 @@
+package mk.ukim.finki.wp.workspaces.repository;
+
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    /**
+     * Resolves the user through Hibernate's natural id API, so repeated lookups are served from the
+     * natural id and entity cache regions instead of a query.
+     */
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,24 @@
+package mk.ukim.finki.wp.workspaces.repository;
+
+import jakarta.persistence.EntityManager;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+    private final EntityManager entityManager;
+
+    public UserNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
@@ -1,21 +1,26 @@
 package mk.ukim.finki.wp.workspaces.repository;
 
 import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.projections.MembershipVersionView;
+import mk.ukim.finki.wp.workspaces.model.projections.UserIdView;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+@Transactional(readOnly = true)
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
     Optional<User> findByUsernameAndPassword(String username, String password);
 
-    Optional<User> findByUsername(String username);
-
     @EntityGraph(
             type = EntityGraph.EntityGraphType.FETCH,
             attributePaths = {"userWorkspaces"}
@@ -30,5 +35,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("select u from User u")
     List<User> loadAll();
 
+    @Query("select coalesce(u.membershipVersion, 0) from User u where u.id = :id")
+    Optional<Long> findMembershipVersionById(@Param("id") Long id);
+
+    @Query("select new mk.ukim.finki.wp.workspaces.model.projections.MembershipVersionView(u.id, coalesce(u.membershipVersion, 0)) " +
+            "from User u where u.id in :ids")
+    List<MembershipVersionView> findMembershipVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.membershipVersion = coalesce(u.membershipVersion, 0) + 1 where u.id in :ids")
+    int incrementMembershipVersions(@Param("ids") Collection<Long> ids);
+
+    @Query("select new mk.ukim.finki.wp.workspaces.model.projections.UserIdView(u.id, u.username) " +
+            "from User u where u.username in :usernames")
+    List<UserIdView> findIdsByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
 }
 
@@ -0,0 +1,24 @@
+package mk.ukim.finki.wp.workspaces.repository;
+
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface UserWorkspaceBulkRepository {
+
+    /**
+     * Gives every listed user the given role in the workspace, creating the membership where it is missing.
+     * Runs as one statement regardless of the number of users; ids of users that do not exist are skipped.
+     *
+     * @return the number of memberships created or updated
+     */
+    int upsertRoles(Long workspaceId, Map<Long, Role> roles);
+
+    /**
+     * Removes the memberships of the listed users in one statement.
+     *
+     * @return the number of memberships removed
+     */
+    int deleteByWorkspaceIdAndUserIdIn(Long workspaceId, Collection<Long> userIds);
+}
@@ -0,0 +1,100 @@
+package mk.ukim.finki.wp.workspaces.repository;
+
+import jakarta.persistence.EntityManager;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Native statements declare {@link UserWorkspace} as their query space, so Hibernate still evicts the
+ * membership entity region and invalidates cached membership queries after they run.
+ */
+public class UserWorkspaceBulkRepositoryImpl implements UserWorkspaceBulkRepository {
+    private static final String POSTGRES_UPSERT = """
+            insert into user_workspace (id, user_id, workspace_id, role)
+            select nextval('user_workspace_seq'), u.id, :workspaceId, e.role
+            from unnest(cast(:userIds as bigint[]), cast(:roles as varchar[])) as e(user_id, role)
+            join workspace_user u on u.id = e.user_id
+            on conflict (user_id, workspace_id) do update set role = excluded.role
+            """;
+
+    private static final String H2_UPSERT = """
+            merge into user_workspace t
+            using (select u.id as user_id, e.role as role
+                   from unnest(cast(:userIds as bigint array), cast(:roles as varchar array)) as e(user_id, role)
+                   join workspace_user u on u.id = e.user_id) s
+            on t.user_id = s.user_id and t.workspace_id = :workspaceId
+            when matched then update set role = s.role
+            when not matched then insert (id, user_id, workspace_id, role)
+                values (next value for user_workspace_seq, s.user_id, :workspaceId, s.role)
+            """;
+
+    private static final String POSTGRES_DELETE = """
+            delete from user_workspace
+            where workspace_id = :workspaceId and user_id = any(cast(:userIds as bigint[]))
+            """;
+
+    private static final String H2_DELETE = """
+            delete from user_workspace
+            where workspace_id = :workspaceId and user_id = any(cast(:userIds as bigint array))
+            """;
+
+    private final EntityManager entityManager;
+
+    public UserWorkspaceBulkRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public int upsertRoles(Long workspaceId, Map<Long, Role> roles) {
+        if (roles.isEmpty()) {
+            return 0;
+        }
+        Long[] userIds = new Long[roles.size()];
+        String[] roleNames = new String[roles.size()];
+        int i = 0;
+        for (Map.Entry<Long, Role> entry : roles.entrySet()) {
+            userIds[i] = entry.getKey();
+            roleNames[i] = entry.getValue().name();
+            i++;
+        }
+
+        return mutation(isPostgres() ? POSTGRES_UPSERT : H2_UPSERT)
+                .setParameter("workspaceId", workspaceId)
+                .setParameter("userIds", userIds)
+                .setParameter("roles", roleNames)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int deleteByWorkspaceIdAndUserIdIn(Long workspaceId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        return mutation(isPostgres() ? POSTGRES_DELETE : H2_DELETE)
+                .setParameter("workspaceId", workspaceId)
+                .setParameter("userIds", userIds.toArray(Long[]::new))
+                .executeUpdate();
+    }
+
+    private NativeQuery<?> mutation(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(UserWorkspace.class);
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -1,16 +1,78 @@
 package mk.ukim.finki.wp.workspaces.repository;
 
+import jakarta.persistence.QueryHint;
 import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.projections.MembershipIdView;
+import mk.ukim.finki.wp.workspaces.model.projections.MembershipKeyView;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceRoleView;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceWithRoleView;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserWorkspaceRepository extends JpaRepository<UserWorkspace, Long> {
+@Transactional(readOnly = true)
+public interface UserWorkspaceRepository extends JpaRepository<UserWorkspace, Long>, UserWorkspaceBulkRepository {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "membershipLookups")
+    })
     Optional<UserWorkspace> findByWorkspaceIdAndUserId(Long workspaceId, Long userId);
 
+    @Query("select uw.role from UserWorkspace uw where uw.workspace.id = :workspaceId and uw.user.id = :userId")
+    Optional<Role> findRoleByWorkspaceIdAndUserId(@Param("workspaceId") Long workspaceId, @Param("userId") Long userId);
+
+    @EntityGraph(attributePaths = {"user", "workspace"})
     List<UserWorkspace> findAllByUserId(Long userId);
 
+    @Query("select new mk.ukim.finki.wp.workspaces.model.projections.WorkspaceWithRoleView(w.id, w.name, w.description, uw.role, w.version) " +
+            "from UserWorkspace uw join uw.workspace w where uw.user.id = :userId order by w.id")
+    List<WorkspaceWithRoleView> findWorkspacesWithRoleByUserId(@Param("userId") Long userId);
+
+    @Query("select new mk.ukim.finki.wp.workspaces.model.projections.WorkspaceWithRoleView(w.id, w.name, w.description, uw.role, w.version) " +
+            "from UserWorkspace uw join uw.workspace w " +
+            "where uw.user.id = :userId and uw.workspace.id > :afterId order by uw.workspace.id")
+    List<WorkspaceWithRoleView> findPageByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new mk.ukim.finki.wp.workspaces.model.projections.WorkspaceRoleView(uw.workspace.id, uw.role) " +
+            "from UserWorkspace uw where uw.user.id = :userId")
+    List<WorkspaceRoleView> findWorkspaceRolesByUserId(@Param("userId") Long userId);
+
+    @Query("select uw.user.id from UserWorkspace uw where uw.workspace.id = :workspaceId")
+    List<Long> findUserIdsByWorkspaceId(@Param("workspaceId") Long workspaceId);
+
+    @Query("select new mk.ukim.finki.wp.workspaces.model.projections.MembershipIdView(uw.id, uw.user.id) " +
+            "from UserWorkspace uw where uw.workspace.id = :workspaceId and uw.role <> :role")
+    List<MembershipIdView> findIdsByWorkspaceIdAndRoleNot(@Param("workspaceId") Long workspaceId, @Param("role") Role role,
+                                                          Limit limit);
+
+    long countByWorkspaceId(Long workspaceId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UserWorkspace uw where uw.workspace.id = :workspaceId")
+    int deleteAllByWorkspaceId(@Param("workspaceId") Long workspaceId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UserWorkspace uw where uw.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    @Query("select new mk.ukim.finki.wp.workspaces.model.projections.MembershipKeyView(uw.user.id, uw.workspace.id) " +
+            "from UserWorkspace uw where uw.user.id in :userIds and uw.workspace.id in :workspaceIds")
+    List<MembershipKeyView> findKeysByUserIdInAndWorkspaceIdIn(@Param("userIds") Collection<Long> userIds,
+                                                               @Param("workspaceIds") Collection<Long> workspaceIds);
+
 }
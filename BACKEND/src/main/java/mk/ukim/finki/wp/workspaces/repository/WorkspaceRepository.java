@@ -1,9 +1,78 @@
 package mk.ukim.finki.wp.workspaces.repository;
 
 import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
+@Transactional(readOnly = true)
 public interface WorkspaceRepository extends JpaRepository<Workspace, Long> {
+
+    @Query("select new mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView(w.id, w.name, w.description, w.version) " +
+            "from Workspace w order by w.id")
+    List<WorkspaceView> findAllViews();
+
+    @Query("select new mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView(w.id, w.name, w.description, w.version) " +
+            "from Workspace w where w.id > :afterId order by w.id")
+    List<WorkspaceView> findViewPage(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView(w.id, w.name, w.description, w.version) " +
+            "from Workspace w where w.id = :id")
+    Optional<WorkspaceView> findViewById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView(w.id, w.name, w.description, w.version) " +
+            "from Workspace w order by w.id")
+    Stream<WorkspaceView> streamAllViews();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("select w.id from Workspace w")
+    Stream<Long> streamAllIds();
+
+    @Query("select w.version from Workspace w where w.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select w.id from Workspace w where w.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    boolean existsByIdAndPendingDeleteTrue(Long id);
+
+    @Query("select w.id from Workspace w where w.pendingDelete = true")
+    List<Long> findPendingDeleteIds();
+
+    @Transactional
+    @Modifying
+    @Query("update Workspace w set w.pendingDelete = true where w.id = :id")
+    int markPendingDelete(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Workspace w set w.name = :name, w.description = :description, w.version = w.version + 1 where w.id = :id")
+    int updateNameAndDescription(@Param("id") Long id, @Param("name") String name, @Param("description") String description);
+
+    @Transactional
+    @Modifying
+    @Query("update Workspace w set w.name = :name, w.description = :description, w.version = w.version + 1 " +
+            "where w.id = :id and w.version = :version")
+    int updateNameAndDescriptionIfVersion(@Param("id") Long id, @Param("version") Long version,
+                                          @Param("name") String name, @Param("description") String description);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Workspace w where w.id = :id")
+    int deleteWorkspaceById(@Param("id") Long id);
 }
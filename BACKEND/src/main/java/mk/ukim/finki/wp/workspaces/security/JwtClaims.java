@@ -0,0 +1,45 @@
+package mk.ukim.finki.wp.workspaces.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Verified and decoded contents of a bearer token. Built once per request by {@link JwtFilter}
+ * and shared with the rest of the chain through a request attribute.
+ */
+public record JwtClaims(
+        String subject,
+        Long userId,
+        Long membershipVersion,
+        Date expiration,
+        WorkspaceAccess workspaceAccess
+) {
+    public static final String REQUEST_ATTRIBUTE = JwtClaims.class.getName();
+
+    public JwtClaims {
+        expiration = expiration == null ? null : new Date(expiration.getTime());
+        workspaceAccess = workspaceAccess == null ? WorkspaceAccess.empty() : workspaceAccess;
+    }
+
+    @Override
+    public Date expiration() {
+        return expiration == null ? null : new Date(expiration.getTime());
+    }
+
+    /**
+     * Tokens issued before membership versions were introduced carry no version and are treated as outdated.
+     */
+    public boolean isMembershipOutdated(long currentVersion) {
+        return membershipVersion == null || membershipVersion < currentVersion;
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() < System.currentTimeMillis();
+    }
+
+    public static Optional<JwtClaims> from(HttpServletRequest request) {
+        return Optional.ofNullable((JwtClaims) request.getAttribute(REQUEST_ATTRIBUTE));
+    }
+}
@@ -5,8 +5,6 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.NotNull;
-import mk.ukim.finki.wp.workspaces.model.domain.User;
-import mk.ukim.finki.wp.workspaces.service.domain.UserService;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,11 +17,13 @@ import java.io.IOException;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
     private final JwtHelper jwtHelper;
-    private final UserService userService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserPrincipalCache userPrincipalCache;
 
-    public JwtFilter(JwtHelper jwtHelper, UserService userService) {
+    public JwtFilter(JwtHelper jwtHelper, VerifiedTokenCache verifiedTokenCache, UserPrincipalCache userPrincipalCache) {
         this.jwtHelper = jwtHelper;
-        this.userService = userService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.userPrincipalCache = userPrincipalCache;
     }
 
     @Override
@@ -47,28 +47,28 @@ public class JwtFilter extends OncePerRequestFilter {
         String token = authorizationHeader.substring(JwtConstants.TOKEN_PREFIX.length());
 
         try {
-            String username = jwtHelper.extractUsername(token);
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (username == null || authentication != null) {
-                filterChain.doFilter(request, response);
-                return;
-            }
+            JwtClaims claims = verifiedTokenCache.get(token, jwtHelper::parse);
+            request.setAttribute(JwtClaims.REQUEST_ATTRIBUTE, claims);
 
-            User user = userService.findByUsername(username);
+            String username = claims.subject();
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (username != null && authentication == null) {
+                UserPrincipal principal = userPrincipalCache.get(username);
 
-            if (jwtHelper.isValid(token, user)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        user,
-                        null,
-                        user.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                if (jwtHelper.isValid(claims, principal)) {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            principal,
+                            null,
+                            principal.getAuthorities()
+                    );
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
             }
         } catch (Exception e) {
-
-        } finally {
-            filterChain.doFilter(request, response);
+            request.removeAttribute(JwtClaims.REQUEST_ATTRIBUTE);
         }
+
+        filterChain.doFilter(request, response);
     }
 }
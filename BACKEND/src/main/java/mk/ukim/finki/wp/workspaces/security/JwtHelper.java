@@ -1,12 +1,15 @@
 package mk.ukim.finki.wp.workspaces.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import mk.ukim.finki.wp.workspaces.model.domain.User;
 import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
@@ -14,25 +17,59 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtHelper {
+    static final String WORKSPACE_ACCESS_CLAIM = "workspaceAccess";
+    static final String COMPACT_WORKSPACE_ACCESS_CLAIM = "wsa";
+    static final String USER_ID_CLAIM = "uid";
+    static final String MEMBERSHIP_VERSION_CLAIM = "mv";
+
+    private final Key signInKey;
+    private final JwtParser parser;
+    private final boolean compactWorkspaceAccess;
+
+    public JwtHelper() {
+        this(false);
+    }
+
+    @Autowired
+    public JwtHelper(@Value("${jwt.workspace-access.compact:false}") boolean compactWorkspaceAccess) {
+        this.compactWorkspaceAccess = compactWorkspaceAccess;
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtConstants.SECRET_KEY));
+        this.parser = Jwts
+                .parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+    }
+
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(JwtConstants.SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signInKey;
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    /**
+     * Verifies the signature of the token and decodes every claim the application needs in a single pass.
+     */
+    public JwtClaims parse(String token) {
+        Claims claims = extractAllClaims(token);
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get(USER_ID_CLAIM, Long.class),
+                claims.get(MEMBERSHIP_VERSION_CLAIM, Long.class),
+                claims.getExpiration(),
+                toWorkspaceAccess(claims)
+        );
+    }
+
 
     private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         Claims allClaims = extractAllClaims(token);
@@ -49,15 +86,38 @@ public class JwtHelper {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    @SuppressWarnings("unchecked")
     public Map<Long, String> extractWorkspaceAccess(String token) {
-        Map<String, String> raw = extractClaim(token, claims -> (Map<String, String>) claims.get("workspaceAccess"));
+        return extractClaim(token, this::toWorkspaceAccess)
+                .asMap()
+                .entrySet()
+                .stream()
+                .collect(Collectors.toMap(
+                        Map.Entry::getKey,
+                        e -> e.getValue().name()
+                ));
+    }
 
-        return raw.entrySet().stream()
+    /**
+     * Both claim formats are always accepted, so switching {@code jwt.workspace-access.compact}
+     * does not invalidate tokens that were already issued.
+     */
+    @SuppressWarnings("unchecked")
+    private WorkspaceAccess toWorkspaceAccess(Claims claims) {
+        String compact = claims.get(COMPACT_WORKSPACE_ACCESS_CLAIM, String.class);
+        if (compact != null) {
+            return WorkspaceAccessCodec.decode(compact);
+        }
+
+        Map<String, String> raw = (Map<String, String>) claims.get(WORKSPACE_ACCESS_CLAIM);
+        if (raw == null) {
+            return WorkspaceAccess.empty();
+        }
+
+        return WorkspaceAccess.of(raw.entrySet().stream()
                 .collect(Collectors.toMap(
                         e -> Long.parseLong(e.getKey()),
-                        Map.Entry::getValue
-                ));
+                        e -> Role.valueOf(e.getValue())
+                )));
     }
     public String buildToken(
             Map<String, Object> extraClaims,
@@ -93,19 +153,28 @@ public class JwtHelper {
     }
 
     public boolean isValid(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        return !isExpired(token) && username.equals(userDetails.getUsername());
+        return isValid(parse(token), userDetails);
+    }
+
+    public boolean isValid(JwtClaims claims, UserDetails userDetails) {
+        return !claims.isExpired() && claims.subject().equals(userDetails.getUsername());
     }
 
     public String generateTokenWithWorkspacesAccess(User user, Map<Long, Role> userWorkspaceRoles) {
         Map<String, Object> extraClaims = new HashMap<>();
-
-        Map<String, String> rolesMap = new HashMap<>();
-        userWorkspaceRoles.forEach((userWorkspaceId, role) ->
-                rolesMap.put(userWorkspaceId.toString(), role.name())
-        );
-
-        extraClaims.put("workspaceAccess", rolesMap);
+        extraClaims.put(USER_ID_CLAIM, user.getId());
+        extraClaims.put(MEMBERSHIP_VERSION_CLAIM, Objects.requireNonNullElse(user.getMembershipVersion(), 0L));
+
+        if (compactWorkspaceAccess) {
+            extraClaims.put(COMPACT_WORKSPACE_ACCESS_CLAIM, WorkspaceAccessCodec.encode(userWorkspaceRoles));
+        } else {
+            Map<String, String> rolesMap = new HashMap<>();
+            userWorkspaceRoles.forEach((userWorkspaceId, role) ->
+                    rolesMap.put(userWorkspaceId.toString(), role.name())
+            );
+
+            extraClaims.put(WORKSPACE_ACCESS_CLAIM, rolesMap);
+        }
 
         return buildToken(extraClaims, user.getUsername(), JwtConstants.EXPIRATION_TIME);
     }
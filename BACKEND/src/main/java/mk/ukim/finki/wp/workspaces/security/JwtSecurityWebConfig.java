@@ -1,6 +1,7 @@
 package mk.ukim.finki.wp.workspaces.security;
 
 import mk.ukim.finki.wp.workspaces.config.CustomUsernamePasswordAuthenticationProvider;
+import mk.ukim.finki.wp.workspaces.config.datasource.ReadYourWritesTracker;
 import mk.ukim.finki.wp.workspaces.filter.WorkspaceAccessFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -38,6 +39,7 @@ public class JwtSecurityWebConfig {
         corsConfiguration.setAllowedOrigins(List.of("http://localhost:3000"));
         corsConfiguration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE"));
         corsConfiguration.setAllowedHeaders(List.of("*"));
+        corsConfiguration.setExposedHeaders(List.of(ReadYourWritesTracker.HEADER));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", corsConfiguration);
         return source;
@@ -50,6 +52,11 @@ public class JwtSecurityWebConfig {
                 .cors(corsCustomizer -> corsCustomizer.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(authorizeHttpRequestsCustomizer ->
                         authorizeHttpRequestsCustomizer
+                                .requestMatchers("/actuator/health")
+                                .permitAll()
+                                // Metrics and any other endpoint exposed later carry request URIs, pool and cache details
+                                .requestMatchers("/actuator/**")
+                                .authenticated()
                                 .anyRequest()
                                 .permitAll()
                 )
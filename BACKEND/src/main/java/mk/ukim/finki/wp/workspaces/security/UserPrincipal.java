@@ -0,0 +1,44 @@
+package mk.ukim.finki.wp.workspaces.security;
+
+import mk.ukim.finki.wp.workspaces.model.context.WorkspaceContext;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of an authenticated user. Unlike the {@link mk.ukim.finki.wp.workspaces.model.domain.User}
+ * entity it carries no persistence state, so it can be cached and shared between requests.
+ */
+public record UserPrincipal(
+        Long id,
+        String username,
+        Map<Long, Role> workspaceRoles
+) implements UserDetails {
+
+    public UserPrincipal {
+        workspaceRoles = Map.copyOf(workspaceRoles);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        Long workspaceId = WorkspaceContext.getCurrentWorkspaceId();
+        if (workspaceId == null || !workspaceRoles.containsKey(workspaceId)) {
+            return List.of();
+        }
+        return List.of(workspaceRoles.get(workspaceId));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+}
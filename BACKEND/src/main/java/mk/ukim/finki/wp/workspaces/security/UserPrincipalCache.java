@@ -0,0 +1,83 @@
+package mk.ukim.finki.wp.workspaces.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mk.ukim.finki.wp.workspaces.config.cache.InvalidationBus;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.events.MembershipChangedEvent;
+import mk.ukim.finki.wp.workspaces.model.events.UserDeletedEvent;
+import mk.ukim.finki.wp.workspaces.service.domain.UserService;
+import mk.ukim.finki.wp.workspaces.service.domain.UserWorkspaceService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Read-through cache of {@link UserPrincipal} snapshots keyed by username, so warm users are
+ * authenticated without touching the database. Deleted users are dropped on every instance through the
+ * {@link InvalidationBus}; a snapshot whose deletion never arrived lives at most {@code security.principal-cache.ttl}.
+ */
+@Component
+public class UserPrincipalCache {
+    private final UserService userService;
+    private final UserWorkspaceService userWorkspaceService;
+    private final InvalidationBus invalidationBus;
+    private final LoadingCache<String, UserPrincipal> cache;
+
+    public UserPrincipalCache(
+            UserService userService,
+            UserWorkspaceService userWorkspaceService,
+            InvalidationBus invalidationBus,
+            @Value("${security.principal-cache.maximum-size:10000}") long maximumSize,
+            @Value("${security.principal-cache.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.userService = userService;
+        this.userWorkspaceService = userWorkspaceService;
+        this.invalidationBus = invalidationBus;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userPrincipals");
+        invalidationBus.subscribeToUserDeletions(event -> invalidate(event.username()));
+    }
+
+    public UserPrincipal get(String username) {
+        return cache.get(username);
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * Relayed once the deletion has committed, so no instance reloads the user after dropping its snapshot.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidationBus.publish(event);
+    }
+
+    /**
+     * Runs once the change has committed, a principal reloaded before that would hold the old roles.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        cache.asMap().values().removeIf(principal -> event.userIds().contains(principal.id()));
+    }
+
+    private UserPrincipal load(String username) {
+        User user = userService.findByUsername(username);
+        return new UserPrincipal(
+                user.getId(),
+                user.getUsername(),
+                userWorkspaceService.workspacesWithRolesForUser(user.getId())
+        );
+    }
+}
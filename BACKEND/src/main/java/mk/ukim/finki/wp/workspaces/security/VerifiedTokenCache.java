@@ -0,0 +1,112 @@
+package mk.ukim.finki.wp.workspaces.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mk.ukim.finki.wp.workspaces.config.cache.InvalidationBus;
+import mk.ukim.finki.wp.workspaces.model.events.UserDeletedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Keeps already verified tokens so repeat callers skip the HMAC check and JSON decoding.
+ * Entries are keyed by the SHA-256 digest of the token, never by the token itself,
+ * and expire together with the token's {@code exp} claim. Tokens of a user deleted on any instance are
+ * revoked through the {@link InvalidationBus}.
+ */
+@Component
+public class VerifiedTokenCache {
+    private final boolean enabled;
+    private final Cache<String, JwtClaims> cache;
+
+    public VerifiedTokenCache(
+            InvalidationBus invalidationBus,
+            @Value("${jwt.token-cache.enabled:true}") boolean enabled,
+            @Value("${jwt.token-cache.maximum-size:10000}") long maximumSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpireWithToken())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtTokens");
+        invalidationBus.subscribeToUserDeletions(this::onUserDeleted);
+    }
+
+    public JwtClaims get(String token, Function<String, JwtClaims> verifier) {
+        if (!enabled) {
+            return verifier.apply(token);
+        }
+
+        JwtClaims claims = cache.get(digest(token), key -> verifier.apply(token));
+        if (claims.isExpired()) {
+            revoke(token);
+            return verifier.apply(token);
+        }
+        return claims;
+    }
+
+    public void revoke(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    public void revokeSubject(String subject) {
+        cache.asMap().values().removeIf(claims -> subject.equals(claims.subject()));
+    }
+
+    public void revokeAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public void onUserDeleted(UserDeletedEvent event) {
+        revokeSubject(event.username());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class ExpireWithToken implements Expiry<String, JwtClaims> {
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            Date expiration = claims.expiration();
+            if (expiration == null) {
+                return Long.MAX_VALUE;
+            }
+            long millis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package mk.ukim.finki.wp.workspaces.security;
+
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-only workspace id to role lookup decoded from a token. Ids are kept sorted in a primitive
+ * array next to the role ordinals, so lookups neither box nor allocate.
+ */
+public final class WorkspaceAccess {
+    private static final Role[] ROLES = Role.values();
+    private static final WorkspaceAccess EMPTY = new WorkspaceAccess(new long[0], new byte[0]);
+
+    private final long[] workspaceIds;
+    private final byte[] roles;
+
+    WorkspaceAccess(long[] workspaceIds, byte[] roles) {
+        this.workspaceIds = workspaceIds;
+        this.roles = roles;
+    }
+
+    public static WorkspaceAccess empty() {
+        return EMPTY;
+    }
+
+    public static WorkspaceAccess of(Map<Long, Role> workspaceRoles) {
+        long[] ids = workspaceRoles.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        byte[] roles = new byte[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            roles[i] = (byte) workspaceRoles.get(ids[i]).ordinal();
+        }
+        return new WorkspaceAccess(ids, roles);
+    }
+
+    public boolean contains(long workspaceId) {
+        return Arrays.binarySearch(workspaceIds, workspaceId) >= 0;
+    }
+
+    public Role roleOf(long workspaceId) {
+        int index = Arrays.binarySearch(workspaceIds, workspaceId);
+        return index < 0 ? null : ROLES[roles[index]];
+    }
+
+    public int size() {
+        return workspaceIds.length;
+    }
+
+    public Map<Long, Role> asMap() {
+        Map<Long, Role> map = new HashMap<>(workspaceIds.length * 2);
+        for (int i = 0; i < workspaceIds.length; i++) {
+            map.put(workspaceIds[i], ROLES[roles[i]]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    long[] workspaceIds() {
+        return workspaceIds;
+    }
+
+    byte[] roles() {
+        return roles;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WorkspaceAccess that)) return false;
+        return Arrays.equals(workspaceIds, that.workspaceIds) && Arrays.equals(roles, that.roles);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(workspaceIds) + Arrays.hashCode(roles);
+    }
+}
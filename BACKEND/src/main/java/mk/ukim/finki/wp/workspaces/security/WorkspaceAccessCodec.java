@@ -0,0 +1,114 @@
+package mk.ukim.finki.wp.workspaces.security;
+
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Compact binary form of the workspace access claim:
+ * <pre>
+ *   version (1 byte) | count (varint) | id deltas (varints, ascending ids) | roles (bit packed ordinals)
+ * </pre>
+ * encoded as unpadded Base64url. A few thousand memberships fit in a few kilobytes instead of the
+ * tens of kilobytes the JSON object form needs.
+ */
+public final class WorkspaceAccessCodec {
+    private static final int VERSION = 1;
+    private static final Role[] ROLES = Role.values();
+    private static final int BITS_PER_ROLE = Math.max(1, 32 - Integer.numberOfLeadingZeros(ROLES.length - 1));
+
+    private WorkspaceAccessCodec() {
+    }
+
+    public static String encode(Map<Long, Role> workspaceRoles) {
+        WorkspaceAccess access = WorkspaceAccess.of(workspaceRoles);
+        long[] ids = access.workspaceIds();
+        byte[] roles = access.roles();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(ids.length * 2 + 8);
+        out.write(VERSION);
+        writeVarLong(out, ids.length);
+        long previous = 0;
+        for (long id : ids) {
+            writeVarLong(out, id - previous);
+            previous = id;
+        }
+
+        byte[] packed = new byte[(ids.length * BITS_PER_ROLE + 7) / 8];
+        for (int i = 0; i < roles.length; i++) {
+            for (int bit = 0; bit < BITS_PER_ROLE; bit++) {
+                if ((roles[i] >> bit & 1) != 0) {
+                    int position = i * BITS_PER_ROLE + bit;
+                    packed[position >> 3] |= (byte) (1 << (position & 7));
+                }
+            }
+        }
+        out.writeBytes(packed);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray());
+    }
+
+    public static WorkspaceAccess decode(String encoded) {
+        byte[] bytes = Base64.getUrlDecoder().decode(encoded);
+        int[] position = {0};
+
+        if (bytes.length == 0 || bytes[position[0]++] != VERSION) {
+            throw new IllegalArgumentException("Unsupported workspace access encoding");
+        }
+
+        int count = Math.toIntExact(readVarLong(bytes, position));
+        long[] ids = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += readVarLong(bytes, position);
+            ids[i] = previous;
+        }
+
+        int offset = position[0];
+        if (bytes.length - offset != (count * BITS_PER_ROLE + 7) / 8) {
+            throw new IllegalArgumentException("Malformed workspace access claim");
+        }
+        byte[] roles = new byte[count];
+        for (int i = 0; i < count; i++) {
+            int role = 0;
+            for (int bit = 0; bit < BITS_PER_ROLE; bit++) {
+                int bitPosition = i * BITS_PER_ROLE + bit;
+                if ((bytes[offset + (bitPosition >> 3)] >> (bitPosition & 7) & 1) != 0) {
+                    role |= 1 << bit;
+                }
+            }
+            if (role >= ROLES.length) {
+                throw new IllegalArgumentException("Unknown role in workspace access claim");
+            }
+            roles[i] = (byte) role;
+        }
+
+        return new WorkspaceAccess(ids, roles);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] bytes, int[] position) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            if (position[0] >= bytes.length || shift > 63) {
+                throw new IllegalArgumentException("Malformed workspace access claim");
+            }
+            byte b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
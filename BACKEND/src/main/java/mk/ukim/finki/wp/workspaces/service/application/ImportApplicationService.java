@@ -0,0 +1,11 @@
+package mk.ukim.finki.wp.workspaces.service.application;
+
+import mk.ukim.finki.wp.workspaces.dto.ImportSummaryDto;
+import mk.ukim.finki.wp.workspaces.model.imports.ImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportApplicationService {
+    ImportSummaryDto importRows(InputStream body, ImportFormat format) throws IOException;
+}
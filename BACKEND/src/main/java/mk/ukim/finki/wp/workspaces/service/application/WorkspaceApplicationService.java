@@ -1,17 +1,41 @@
 package mk.ukim.finki.wp.workspaces.service.application;
 
+import mk.ukim.finki.wp.workspaces.dto.CursorPageDto;
 import mk.ukim.finki.wp.workspaces.dto.DisplayWorkspaceDto;
 import mk.ukim.finki.wp.workspaces.dto.EditWorkspaceDto;
+import mk.ukim.finki.wp.workspaces.dto.MembershipBatchDto;
+import mk.ukim.finki.wp.workspaces.dto.MembershipBatchResultDto;
 import mk.ukim.finki.wp.workspaces.dto.WorkspaceWithRoleDto;
+import mk.ukim.finki.wp.workspaces.model.enumerations.DeletionOutcome;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface WorkspaceApplicationService {
     List<DisplayWorkspaceDto> findAll();
+    /**
+     * Identifies the current contents of {@link #findAll()}; it changes whenever any workspace is created, edited or deleted.
+     */
+    String findCatalogVersion();
+    CursorPageDto<DisplayWorkspaceDto> findPage(String cursor, int size);
+    void forEachWorkspace(Consumer<DisplayWorkspaceDto> consumer);
     Optional<DisplayWorkspaceDto> openWorkspace(Long workspaceId, Long userId);
-    Optional<EditWorkspaceDto> editWorkspace(Long workspaceId, Long userId, EditWorkspaceDto editWorkspaceDto);
+    Optional<Long> findWorkspaceVersion(Long workspaceId);
+    /**
+     * With an expected version the edit only applies while the workspace is still at that version,
+     * otherwise a {@code PreconditionFailedException} is thrown.
+     */
+    Optional<EditWorkspaceDto> editWorkspace(Long workspaceId, Long userId, EditWorkspaceDto editWorkspaceDto, Long expectedVersion);
+    /**
+     * Identifies the current contents of the user's listings, known without reading them; it changes whenever the
+     * user's memberships change or any workspace is created, edited or deleted.
+     */
+    String findMyWorkspacesVersion(Long userId);
     List<WorkspaceWithRoleDto> findAllPerUser(Long userId);
+    CursorPageDto<WorkspaceWithRoleDto> findPagePerUser(Long userId, String cursor, int size);
 
-    boolean deleteWorkspace(Long workspaceId, Long userId);
+    DeletionOutcome deleteWorkspace(Long workspaceId, Long userId);
+
+    MembershipBatchResultDto updateMembers(Long workspaceId, Long callerId, MembershipBatchDto membershipBatchDto);
 }
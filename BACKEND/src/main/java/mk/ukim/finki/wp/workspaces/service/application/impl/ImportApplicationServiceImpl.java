@@ -0,0 +1,44 @@
+package mk.ukim.finki.wp.workspaces.service.application.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mk.ukim.finki.wp.workspaces.dto.ImportSummaryDto;
+import mk.ukim.finki.wp.workspaces.imports.CsvImportRowReader;
+import mk.ukim.finki.wp.workspaces.imports.ImportRowReader;
+import mk.ukim.finki.wp.workspaces.imports.NdjsonImportRowReader;
+import mk.ukim.finki.wp.workspaces.model.imports.ImportFormat;
+import mk.ukim.finki.wp.workspaces.service.application.ImportApplicationService;
+import mk.ukim.finki.wp.workspaces.service.domain.ImportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+@Service
+public class ImportApplicationServiceImpl implements ImportApplicationService {
+    private final ImportService importService;
+    private final ObjectMapper objectMapper;
+    private final int maxLineLength;
+
+    public ImportApplicationServiceImpl(ImportService importService,
+                                        ObjectMapper objectMapper,
+                                        @Value("${import.max-line-length:8192}") int maxLineLength) {
+        this.importService = importService;
+        this.objectMapper = objectMapper;
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public ImportSummaryDto importRows(InputStream body, ImportFormat format) throws IOException {
+        Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8);
+        try (ImportRowReader rows = switch (format) {
+            case NDJSON -> new NdjsonImportRowReader(reader, maxLineLength, objectMapper);
+            case CSV -> new CsvImportRowReader(reader, maxLineLength);
+        }) {
+            return ImportSummaryDto.from(importService.importRows(rows));
+        }
+    }
+}
@@ -1,60 +1,186 @@
 package mk.ukim.finki.wp.workspaces.service.application.impl;
 
+import mk.ukim.finki.wp.workspaces.dto.CursorPageDto;
 import mk.ukim.finki.wp.workspaces.dto.DisplayWorkspaceDto;
 import mk.ukim.finki.wp.workspaces.dto.EditWorkspaceDto;
+import mk.ukim.finki.wp.workspaces.dto.MembershipBatchDto;
+import mk.ukim.finki.wp.workspaces.dto.MembershipBatchResultDto;
+import mk.ukim.finki.wp.workspaces.dto.MembershipEntryDto;
 import mk.ukim.finki.wp.workspaces.dto.WorkspaceWithRoleDto;
-import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.context.ResolvedWorkspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.DeletionOutcome;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.exceptions.AccessDeniedException;
+import mk.ukim.finki.wp.workspaces.model.exceptions.InvalidArgumentsException;
+import mk.ukim.finki.wp.workspaces.model.exceptions.PreconditionFailedException;
+import mk.ukim.finki.wp.workspaces.model.pagination.KeysetCursor;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceWithRoleView;
 import mk.ukim.finki.wp.workspaces.service.application.WorkspaceApplicationService;
+import mk.ukim.finki.wp.workspaces.service.domain.MembershipVersionService;
+import mk.ukim.finki.wp.workspaces.service.domain.UserWorkspaceService;
 import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceService;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static java.util.Arrays.stream;
 
 @Service
 public class WorkspaceApplicationServiceImpl implements WorkspaceApplicationService {
     private final WorkspaceService workspaceService;
+    private final UserWorkspaceService userWorkspaceService;
+    private final MembershipVersionService membershipVersionService;
 
-    public WorkspaceApplicationServiceImpl(WorkspaceService workspaceService) {
+    public WorkspaceApplicationServiceImpl(WorkspaceService workspaceService, UserWorkspaceService userWorkspaceService, MembershipVersionService membershipVersionService) {
         this.workspaceService = workspaceService;
+        this.userWorkspaceService = userWorkspaceService;
+        this.membershipVersionService = membershipVersionService;
     }
 
     @Override
     public List<DisplayWorkspaceDto> findAll() {
-        return workspaceService.findAll()
+        return workspaceService.findAllViews()
                 .stream()
                 .map(DisplayWorkspaceDto::from)
                 .toList();
     }
 
+    @Override
+    public String findCatalogVersion() {
+        return workspaceService.findCatalogChangeVersion();
+    }
+
+    @Override
+    public CursorPageDto<DisplayWorkspaceDto> findPage(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        // One extra row tells whether another page exists without a count query
+        List<WorkspaceView> rows = workspaceService.findPage(after.afterId(), size + 1);
+        return toPage(rows, size, WorkspaceView::id, DisplayWorkspaceDto::from);
+    }
+
+    @Override
+    public void forEachWorkspace(Consumer<DisplayWorkspaceDto> consumer) {
+        workspaceService.forEachWorkspace(workspace -> consumer.accept(DisplayWorkspaceDto.from(workspace)));
+    }
+
     @Override
     public Optional<DisplayWorkspaceDto> openWorkspace(Long workspaceId, Long userId) {
+        Optional<ResolvedWorkspace> resolved = ResolvedWorkspace.current(workspaceId);
+        if (resolved.isPresent()) {
+            return Optional.of(DisplayWorkspaceDto.from(resolved.get().workspace()));
+        }
+
         return Optional.ofNullable(workspaceService.openWorkspace(workspaceId, userId)
                 .map(DisplayWorkspaceDto::from)
                 .orElseThrow(() -> new RuntimeException("Workspace not found")));
     }
 
     @Override
-    public Optional<EditWorkspaceDto> editWorkspace(Long workspaceId, Long userId, EditWorkspaceDto editWorkspaceDto) {
+    public Optional<Long> findWorkspaceVersion(Long workspaceId) {
+        return ResolvedWorkspace.current(workspaceId)
+                .map(ResolvedWorkspace::workspace)
+                .or(() -> workspaceService.findViewById(workspaceId))
+                .map(WorkspaceView::version);
+    }
+
+    @Override
+    public Optional<EditWorkspaceDto> editWorkspace(Long workspaceId, Long userId, EditWorkspaceDto editWorkspaceDto, Long expectedVersion) {
+        Optional<ResolvedWorkspace> resolved = ResolvedWorkspace.current(workspaceId);
+        if (resolved.isPresent()) {
+            Optional<WorkspaceView> edited = workspaceService.editWorkspace(resolved.get().workspace(), editWorkspaceDto.toWorkspace(), expectedVersion);
+            if (edited.isEmpty() && expectedVersion != null) {
+                throw new PreconditionFailedException("Workspace " + workspaceId + " was changed after version " + expectedVersion);
+            }
+            return Optional.ofNullable(edited
+                    .map(EditWorkspaceDto::from)
+                    .orElseThrow(() -> new RuntimeException("Workspace not found")));
+        }
+
         return Optional.ofNullable(workspaceService.editWorkspace(workspaceId, userId, editWorkspaceDto.toWorkspace())
                 .map(EditWorkspaceDto::from)
                 .orElseThrow(() -> new RuntimeException("Workspace not found")));
     }
 
+    /**
+     * A membership change bumps the membership version and any other change to the listed rows is a workspace change.
+     * Both are read from the database, so every instance hands out the same version for the same listing. Read
+     * before the rows: a change in between then pairs an older version with newer rows, which only costs the
+     * client one extra download.
+     */
+    @Override
+    public String findMyWorkspacesVersion(Long userId) {
+        return membershipVersionService.storedVersion(userId) + "-" + workspaceService.findChangeVersion();
+    }
+
     @Override
     public List<WorkspaceWithRoleDto> findAllPerUser(Long userId) {
-        return workspaceService
-                .findAllPerUser(userId)
+        return workspaceService.findAllViewsPerUser(userId)
                 .stream()
                 .map(WorkspaceWithRoleDto::from)
                 .toList();
     }
 
     @Override
-    public boolean deleteWorkspace(Long workspaceId, Long userId) {
+    public CursorPageDto<WorkspaceWithRoleDto> findPagePerUser(Long userId, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<WorkspaceWithRoleView> rows = workspaceService.findPagePerUser(userId, after.afterId(), size + 1);
+        return toPage(rows, size, WorkspaceWithRoleView::id, WorkspaceWithRoleDto::from);
+    }
+
+    @Override
+    public DeletionOutcome deleteWorkspace(Long workspaceId, Long userId) {
         return workspaceService.deleteWorkspace(workspaceId, userId);
     }
 
+    @Override
+    public MembershipBatchResultDto updateMembers(Long workspaceId, Long callerId, MembershipBatchDto membershipBatchDto) {
+        // The role the access filter checked, or the stored membership when the request did not pass through it
+        Role callerRole = ResolvedWorkspace.current(workspaceId)
+                .map(ResolvedWorkspace::role)
+                .or(() -> userWorkspaceService.findRole(workspaceId, callerId))
+                .orElse(null);
+        if (callerRole != Role.ROLE_ADMIN) {
+            throw new AccessDeniedException("Only an admin of workspace " + workspaceId + " can manage its members", 403);
+        }
+
+        Map<Long, Role> grants = new HashMap<>();
+        for (MembershipEntryDto entry : membershipBatchDto.grant()) {
+            if (entry == null || entry.userId() == null || entry.role() == null) {
+                throw new InvalidArgumentsException("Every granted membership needs a userId and a role");
+            }
+            if (grants.put(entry.userId(), entry.role()) != null) {
+                throw new InvalidArgumentsException("User " + entry.userId() + " is listed more than once");
+            }
+        }
+
+        Set<Long> revocations = new HashSet<>();
+        for (Long userId : membershipBatchDto.revoke()) {
+            if (userId == null) {
+                throw new InvalidArgumentsException("Revoked user ids cannot be null");
+            }
+            if (grants.containsKey(userId) || !revocations.add(userId)) {
+                throw new InvalidArgumentsException("User " + userId + " is listed more than once");
+            }
+        }
+
+        return MembershipBatchResultDto.from(userWorkspaceService.applyMembershipBatch(workspaceId, grants, revocations));
+    }
+
+    private static <E, D> CursorPageDto<D> toPage(List<E> rows, int size, Function<E, Long> key, Function<E, D> mapper) {
+        if (rows.size() <= size) {
+            return new CursorPageDto<>(rows.stream().map(mapper).toList(), null);
+        }
+        List<E> page = rows.subList(0, size);
+        String next = new KeysetCursor(key.apply(page.get(size - 1))).encode();
+        return new CursorPageDto<>(page.stream().map(mapper).toList(), next);
+    }
+
 }
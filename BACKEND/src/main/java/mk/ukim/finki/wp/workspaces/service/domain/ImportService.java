@@ -0,0 +1,15 @@
+package mk.ukim.finki.wp.workspaces.service.domain;
+
+import mk.ukim.finki.wp.workspaces.imports.ImportRowReader;
+import mk.ukim.finki.wp.workspaces.model.imports.ImportSummary;
+
+import java.io.IOException;
+
+public interface ImportService {
+
+    /**
+     * Creates the users, workspaces and memberships read from {@code reader}. Invalid rows are reported
+     * in the summary and skipped; every other row is written in batches, each in its own transaction.
+     */
+    ImportSummary importRows(ImportRowReader reader) throws IOException;
+}
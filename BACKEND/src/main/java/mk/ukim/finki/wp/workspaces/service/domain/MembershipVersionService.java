@@ -0,0 +1,11 @@
+package mk.ukim.finki.wp.workspaces.service.domain;
+
+import java.util.Collection;
+
+public interface MembershipVersionService {
+    long currentVersion(Long userId);
+
+    long storedVersion(Long userId);
+
+    void bump(Collection<Long> userIds);
+}
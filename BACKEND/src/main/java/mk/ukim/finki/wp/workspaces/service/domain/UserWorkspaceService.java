@@ -1,10 +1,21 @@
 package mk.ukim.finki.wp.workspaces.service.domain;
 
 import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.memberships.MembershipBatchResult;
 
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 public interface UserWorkspaceService {
     Map<Long, Role> workspacesWithRolesForUser(Long userId);
 
+    Optional<Role> findRole(Long workspaceId, Long userId);
+
+    /**
+     * Grants or changes the roles in {@code grants} and revokes the memberships in {@code revocations} with
+     * one statement each. Every affected user's membership version is bumped once for the whole batch.
+     */
+    MembershipBatchResult applyMembershipBatch(Long workspaceId, Map<Long, Role> grants, Set<Long> revocations);
+
 }
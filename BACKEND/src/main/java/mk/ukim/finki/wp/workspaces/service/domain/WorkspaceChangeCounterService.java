@@ -0,0 +1,5 @@
+package mk.ukim.finki.wp.workspaces.service.domain;
+
+public interface WorkspaceChangeCounterService {
+    long currentCount();
+}
@@ -0,0 +1,22 @@
+package mk.ukim.finki.wp.workspaces.service.domain;
+
+import mk.ukim.finki.wp.workspaces.model.enumerations.DeletionOutcome;
+
+public interface WorkspaceDeletionService {
+
+    /**
+     * Deletes the workspace and its memberships. Workspaces with more members than
+     * {@code workspace.delete.async-threshold} are marked pending delete and purged in the background instead.
+     * Deleting a workspace whose purge was interrupted resumes it.
+     *
+     * @return {@link DeletionOutcome#DELETED} or {@link DeletionOutcome#SCHEDULED}
+     */
+    DeletionOutcome delete(Long workspaceId);
+
+    /**
+     * Removes the non-admin memberships in chunks of {@code workspace.delete.chunk-size}, each in its own
+     * transaction, then the admin memberships together with the workspace, on the calling thread. Until the
+     * end an admin is left who can delete the workspace again.
+     */
+    void purge(Long workspaceId);
+}
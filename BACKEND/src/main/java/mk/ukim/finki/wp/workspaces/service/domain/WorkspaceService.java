@@ -2,19 +2,47 @@ package mk.ukim.finki.wp.workspaces.service.domain;
 
 import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
 import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.DeletionOutcome;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceWithRoleView;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface WorkspaceService {
     List<Workspace> findAll();
 
+    List<WorkspaceView> findAllViews();
+
+    /**
+     * Opaque version that changes whenever a workspace is created, edited or deleted, the same on every instance.
+     */
+    String findChangeVersion();
+
+    /**
+     * The same version, read on the primary database the catalog is read from.
+     */
+    String findCatalogChangeVersion();
+
+    List<WorkspaceView> findPage(Long afterId, int limit);
+
+    void forEachWorkspace(Consumer<WorkspaceView> consumer);
+
     Optional<Workspace> openWorkspace(Long workspaceId, Long userId);
 
     Optional<Workspace> editWorkspace(Long workspaceId, Long userId, Workspace editWorkspace);
+
+    Optional<WorkspaceView> editWorkspace(WorkspaceView existingWorkspace, Workspace editWorkspace, Long expectedVersion);
     Optional<Workspace> findById(Long workspaceId);
 
+    Optional<WorkspaceView> findViewById(Long workspaceId);
+
     List<UserWorkspace> findAllPerUser(Long userId);
 
-    boolean deleteWorkspace(Long workspaceId, Long userId);
+    List<WorkspaceWithRoleView> findAllViewsPerUser(Long userId);
+
+    List<WorkspaceWithRoleView> findPagePerUser(Long userId, Long afterId, int limit);
+
+    DeletionOutcome deleteWorkspace(Long workspaceId, Long userId);
 }
@@ -0,0 +1,393 @@
+package mk.ukim.finki.wp.workspaces.service.domain.impl;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import mk.ukim.finki.wp.workspaces.imports.ImportRowReader;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.events.MembershipChangedEvent;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+import mk.ukim.finki.wp.workspaces.model.exceptions.InvalidImportRowException;
+import mk.ukim.finki.wp.workspaces.model.imports.ImportRow;
+import mk.ukim.finki.wp.workspaces.model.imports.ImportRowError;
+import mk.ukim.finki.wp.workspaces.model.imports.ImportSummary;
+import mk.ukim.finki.wp.workspaces.model.imports.MembershipImportRow;
+import mk.ukim.finki.wp.workspaces.model.imports.UserImportRow;
+import mk.ukim.finki.wp.workspaces.model.imports.WorkspaceImportRow;
+import mk.ukim.finki.wp.workspaces.model.projections.MembershipKeyView;
+import mk.ukim.finki.wp.workspaces.model.projections.UserIdView;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.service.domain.ImportService;
+import mk.ukim.finki.wp.workspaces.service.domain.MembershipVersionService;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Writes imported rows in batches of {@code import.batch-size}. Passwords are hashed on a dedicated pool
+ * while the rows are still being read, and at most two batches are held at a time: the one being written
+ * and the one being read, whose hashes are computed meanwhile. Memory use therefore does not depend on the
+ * size of the input, apart from the ids of workspaces imported under a key.
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+    private final UserRepository userRepository;
+    private final WorkspaceRepository workspaceRepository;
+    private final UserWorkspaceRepository userWorkspaceRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final MembershipVersionService membershipVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService hashingPool;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ImportServiceImpl(UserRepository userRepository,
+                             WorkspaceRepository workspaceRepository,
+                             UserWorkspaceRepository userWorkspaceRepository,
+                             PasswordEncoder passwordEncoder,
+                             MembershipVersionService membershipVersionService,
+                             ApplicationEventPublisher eventPublisher,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${import.batch-size:500}") int batchSize,
+                             @Value("${import.hash-threads:0}") int hashThreads,
+                             @Value("${import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.workspaceRepository = workspaceRepository;
+        this.userWorkspaceRepository = userWorkspaceRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.membershipVersionService = membershipVersionService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.hashingPool = Executors.newFixedThreadPool(
+                hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors(),
+                Thread.ofPlatform().name("import-hash-", 0).daemon().factory()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    @Override
+    public ImportSummary importRows(ImportRowReader reader) throws IOException {
+        ImportRun run = new ImportRun(maxReportedErrors);
+        Batch pending = null;
+        Batch current = new Batch();
+        try {
+            while (true) {
+                ImportRow row;
+                try {
+                    row = reader.next();
+                } catch (InvalidImportRowException exception) {
+                    run.rowsRead++;
+                    run.reject(exception.getLine(), exception.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+
+                run.rowsRead++;
+                current.add(row);
+                if (current.size() == batchSize) {
+                    if (pending != null) {
+                        write(pending, run);
+                    }
+                    pending = current;
+                    current = new Batch();
+                }
+            }
+            if (pending != null) {
+                write(pending, run);
+                pending = null;
+            }
+            write(current, run);
+            current = null;
+        } finally {
+            if (pending != null) {
+                pending.cancel();
+            }
+            if (current != null) {
+                current.cancel();
+            }
+        }
+        return run.toSummary();
+    }
+
+    private void write(Batch batch, ImportRun run) {
+        if (batch.size() == 0) {
+            return;
+        }
+
+        List<User> users = new ArrayList<>(batch.users.size());
+        List<UserImportRow> userRows = new ArrayList<>(batch.users.size());
+        for (PendingUser pendingUser : batch.users) {
+            try {
+                UserImportRow row = pendingUser.row();
+                users.add(new User(row.username(), row.email(), pendingUser.passwordHash().get()));
+                userRows.add(row);
+            } catch (ExecutionException exception) {
+                run.reject(pendingUser.row().line(), "Password could not be hashed");
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import interrupted", exception);
+            }
+        }
+
+        BatchResult result;
+        try {
+            result = transactionTemplate.execute(status -> writeInTransaction(users, userRows, batch, run));
+        } catch (DataAccessException | TransactionException exception) {
+            String message = "Batch rolled back: " + exception.getMostSpecificCause().getMessage();
+            userRows.forEach(row -> run.reject(row.line(), message));
+            batch.workspaces.forEach(row -> run.reject(row.line(), message));
+            batch.memberships.forEach(row -> run.reject(row.line(), message));
+            return;
+        }
+
+        run.merge(result);
+        if (!result.memberIds.isEmpty()) {
+            eventPublisher.publishEvent(new MembershipChangedEvent(result.memberIds));
+        }
+    }
+
+    private BatchResult writeInTransaction(List<User> users, List<UserImportRow> userRows, Batch batch, ImportRun run) {
+        // Imported rows are cold; keep them from evicting the entries that serve regular traffic
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        BatchResult result = new BatchResult();
+
+        Set<String> usernames = new HashSet<>(usernames(userRows));
+        for (UserIdView existing : findIdsByUsername(usernames)) {
+            usernames.remove(existing.username());
+        }
+        List<User> newUsers = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            if (usernames.remove(users.get(i).getUsername())) {
+                newUsers.add(users.get(i));
+            } else {
+                result.reject(userRows.get(i).line(), "Username already exists");
+            }
+        }
+        userRepository.saveAll(newUsers);
+        result.usersCreated = newUsers.size();
+
+        for (WorkspaceImportRow row : batch.workspaces) {
+            if (row.key() != null && (run.workspaceKeys.containsKey(row.key()) || result.workspaceKeys.containsKey(row.key()))) {
+                result.reject(row.line(), "Workspace key " + row.key() + " is already used");
+                continue;
+            }
+            // Persisted past the repository, which would announce every workspace on its own
+            Workspace workspace = new Workspace(row.name(), row.description());
+            entityManager.persist(workspace);
+            if (row.key() != null) {
+                result.workspaceKeys.put(row.key(), workspace.getId());
+            }
+            result.workspacesCreated++;
+        }
+        if (result.workspacesCreated > 0) {
+            // One notice for the whole batch, relayed to the other instances once it commits
+            eventPublisher.publishEvent(WorkspaceChangedEvent.catalogChanged());
+        }
+
+        if (!batch.memberships.isEmpty()) {
+            writeMemberships(batch.memberships, run, result);
+        }
+        return result;
+    }
+
+    private void writeMemberships(List<MembershipImportRow> rows, ImportRun run, BatchResult result) {
+        Map<String, Long> userIds = findIdsByUsername(rows.stream().map(MembershipImportRow::username).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(UserIdView::username, UserIdView::id));
+
+        Set<Long> referencedIds = new HashSet<>();
+        for (MembershipImportRow row : rows) {
+            Long id = parseId(row.workspace());
+            if (workspaceKey(row, run, result) == null && id != null) {
+                referencedIds.add(id);
+            }
+        }
+        Set<Long> existingIds = referencedIds.isEmpty() ? Set.of() : new HashSet<>(workspaceRepository.findExistingIds(referencedIds));
+
+        List<Long> workspaceIds = new ArrayList<>(rows.size());
+        for (MembershipImportRow row : rows) {
+            Long id = workspaceKey(row, run, result);
+            if (id == null) {
+                id = parseId(row.workspace());
+                id = id != null && existingIds.contains(id) ? id : null;
+            }
+            workspaceIds.add(id);
+        }
+
+        Set<Long> resolvedIds = workspaceIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<MembershipKeyView> existing = userIds.isEmpty() || resolvedIds.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(userWorkspaceRepository.findKeysByUserIdInAndWorkspaceIdIn(userIds.values(), resolvedIds));
+
+        List<UserWorkspace> memberships = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            MembershipImportRow row = rows.get(i);
+            Long userId = userIds.get(row.username());
+            if (userId == null) {
+                result.reject(row.line(), "Unknown user " + row.username());
+                continue;
+            }
+            Long workspaceId = workspaceIds.get(i);
+            if (workspaceId == null) {
+                result.reject(row.line(), "Unknown workspace " + row.workspace());
+                continue;
+            }
+            if (!existing.add(new MembershipKeyView(userId, workspaceId))) {
+                result.reject(row.line(), "User " + row.username() + " is already a member of workspace " + row.workspace());
+                continue;
+            }
+            memberships.add(new UserWorkspace(
+                    userRepository.getReferenceById(userId),
+                    workspaceRepository.getReferenceById(workspaceId),
+                    row.role()
+            ));
+            result.memberIds.add(userId);
+        }
+        userWorkspaceRepository.saveAll(memberships);
+        result.membershipsCreated = memberships.size();
+        membershipVersionService.bump(result.memberIds);
+    }
+
+    private List<UserIdView> findIdsByUsername(Set<String> usernames) {
+        return usernames.isEmpty() ? List.of() : userRepository.findIdsByUsernameIn(usernames);
+    }
+
+    private static Set<String> usernames(List<UserImportRow> rows) {
+        return rows.stream().map(UserImportRow::username).collect(Collectors.toSet());
+    }
+
+    private static Long workspaceKey(MembershipImportRow row, ImportRun run, BatchResult result) {
+        Long id = result.workspaceKeys.get(row.workspace());
+        return id != null ? id : run.workspaceKeys.get(row.workspace());
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    private record PendingUser(UserImportRow row, Future<String> passwordHash) {
+    }
+
+    private class Batch {
+        private final List<PendingUser> users = new ArrayList<>();
+        private final List<WorkspaceImportRow> workspaces = new ArrayList<>();
+        private final List<MembershipImportRow> memberships = new ArrayList<>();
+
+        void add(ImportRow row) {
+            switch (row) {
+                case UserImportRow user -> users.add(new PendingUser(
+                        user,
+                        hashingPool.submit(() -> passwordEncoder.encode(user.password()))
+                ));
+                case WorkspaceImportRow workspace -> workspaces.add(workspace);
+                case MembershipImportRow membership -> memberships.add(membership);
+            }
+        }
+
+        int size() {
+            return users.size() + workspaces.size() + memberships.size();
+        }
+
+        void cancel() {
+            users.forEach(user -> user.passwordHash().cancel(true));
+        }
+    }
+
+    /**
+     * Changes made by one batch, applied to the {@link ImportRun} only once the batch has committed.
+     */
+    private static class BatchResult {
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private final Map<String, Long> workspaceKeys = new HashMap<>();
+        private final Set<Long> memberIds = new HashSet<>();
+        private long usersCreated;
+        private long workspacesCreated;
+        private long membershipsCreated;
+
+        void reject(long line, String message) {
+            errors.add(new ImportRowError(line, message));
+        }
+    }
+
+    private static class ImportRun {
+        private final int maxReportedErrors;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private final Map<String, Long> workspaceKeys = new HashMap<>();
+        private long rowsRead;
+        private long usersCreated;
+        private long workspacesCreated;
+        private long membershipsCreated;
+        private long rowsRejected;
+
+        ImportRun(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void reject(long line, String message) {
+            rowsRejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportRowError(line, message));
+            }
+        }
+
+        void merge(BatchResult result) {
+            result.errors.forEach(error -> reject(error.line(), error.message()));
+            workspaceKeys.putAll(result.workspaceKeys);
+            usersCreated += result.usersCreated;
+            workspacesCreated += result.workspacesCreated;
+            membershipsCreated += result.membershipsCreated;
+        }
+
+        ImportSummary toSummary() {
+            return new ImportSummary(
+                    rowsRead,
+                    usersCreated,
+                    workspacesCreated,
+                    membershipsCreated,
+                    rowsRejected,
+                    errors,
+                    rowsRejected > errors.size()
+            );
+        }
+    }
+}
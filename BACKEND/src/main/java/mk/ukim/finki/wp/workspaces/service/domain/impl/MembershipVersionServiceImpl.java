@@ -0,0 +1,91 @@
+package mk.ukim.finki.wp.workspaces.service.domain.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import mk.ukim.finki.wp.workspaces.model.events.UserDeletedEvent;
+import mk.ukim.finki.wp.workspaces.model.projections.MembershipVersionView;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.service.domain.MembershipVersionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps recently seen membership versions in memory. A version is read from the database the first time a user
+ * is looked up and again once it expires after {@code security.membership-version.ttl}; in between it changes
+ * only through a committed {@link #bump} on this node. A bump on another node is therefore seen here at the
+ * latest when the version expires, which bounds how long a token outdated there is still accepted here.
+ */
+@Service
+public class MembershipVersionServiceImpl implements MembershipVersionService {
+    private final UserRepository userRepository;
+    private final Cache<Long, Long> versions;
+
+    public MembershipVersionServiceImpl(
+            UserRepository userRepository,
+            @Value("${security.membership-version.maximum-size:100000}") long maximumSize,
+            @Value("${security.membership-version.ttl:30s}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public long currentVersion(Long userId) {
+        return versions.get(userId, id -> userRepository.findMembershipVersionById(id).orElse(0L));
+    }
+
+    /**
+     * Reads the version from the database past the remembered one, for values other instances have to agree on.
+     */
+    @Override
+    public long storedVersion(Long userId) {
+        return userRepository.findMembershipVersionById(userId).orElse(0L);
+    }
+
+    /**
+     * The new versions replace the remembered ones only once the transaction commits, a rollback leaves both
+     * the table and the memory at the old versions.
+     */
+    @Override
+    @Transactional
+    public void bump(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        userRepository.incrementMembershipVersions(userIds);
+        List<MembershipVersionView> bumped = userRepository.findMembershipVersionsByIdIn(userIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(bumped);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(bumped);
+            }
+        });
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        versions.invalidate(event.userId());
+    }
+
+    private void remember(List<MembershipVersionView> bumped) {
+        for (MembershipVersionView view : bumped) {
+            // Concurrent bumps may commit in either order, the higher version is the later one
+            versions.asMap().merge(view.userId(), view.membershipVersion(), Math::max);
+        }
+    }
+}
@@ -1,22 +1,35 @@
 package mk.ukim.finki.wp.workspaces.service.domain.impl;
 
 import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.events.UserDeletedEvent;
 import mk.ukim.finki.wp.workspaces.model.exceptions.*;
 import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
 import mk.ukim.finki.wp.workspaces.service.domain.UserService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
 
 @Service
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserWorkspaceRepository userWorkspaceRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, UserWorkspaceRepository userWorkspaceRepository, PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.userWorkspaceRepository = userWorkspaceRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -33,12 +46,18 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public boolean deleteUserByUsername(String username) {
-        if (userRepository.findByUsername(username).isPresent()) {
-            userRepository.delete(userRepository.findByUsername(username).get());
-            return true;
-        } else {
+        Optional<User> user = userRepository.findByUsername(username);
+        if (user.isEmpty()) {
             return false;
         }
+
+        Long userId = user.get().getId();
+        transactionTemplate.executeWithoutResult(status -> {
+            userWorkspaceRepository.deleteAllByUserId(userId);
+            userRepository.deleteUserById(userId);
+        });
+        eventPublisher.publishEvent(new UserDeletedEvent(userId, username));
+        return true;
     }
 
     @Override
@@ -1,34 +1,79 @@
 package mk.ukim.finki.wp.workspaces.service.domain.impl;
 
-import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
 import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.events.MembershipChangedEvent;
+import mk.ukim.finki.wp.workspaces.model.memberships.MembershipBatchResult;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceRoleView;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
 import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.service.domain.MembershipVersionService;
 import mk.ukim.finki.wp.workspaces.service.domain.UserWorkspaceService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class UserWorkspaceServiceImpl implements UserWorkspaceService {
     private final UserWorkspaceRepository userWorkspaceRepository;
+    private final UserRepository userRepository;
+    private final MembershipVersionService membershipVersionService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserWorkspaceServiceImpl(UserWorkspaceRepository userWorkspaceRepository) {
+    public UserWorkspaceServiceImpl(UserWorkspaceRepository userWorkspaceRepository,
+                                    UserRepository userRepository,
+                                    MembershipVersionService membershipVersionService,
+                                    ApplicationEventPublisher eventPublisher) {
         this.userWorkspaceRepository = userWorkspaceRepository;
+        this.userRepository = userRepository;
+        this.membershipVersionService = membershipVersionService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public Map<Long, Role> workspacesWithRolesForUser(Long id) {
-        List<UserWorkspace> list =  userWorkspaceRepository.findAll();
-        Map<Long, Role> claims  = list.stream()
-                .filter(uw -> uw.getUser().getId().equals(id))
+        List<WorkspaceRoleView> list = userWorkspaceRepository.findWorkspaceRolesByUserId(id);
+        Map<Long, Role> claims = list.stream()
                 .collect(Collectors.toMap(
-                        uv -> uv.getWorkspace().getId(),
-                        UserWorkspace::getRole
+                        WorkspaceRoleView::workspaceId,
+                        WorkspaceRoleView::role
                 ));
         return claims;
     }
 
+    @Override
+    public Optional<Role> findRole(Long workspaceId, Long userId) {
+        return userWorkspaceRepository.findRoleByWorkspaceIdAndUserId(workspaceId, userId);
+    }
+
+    @Override
+    @Transactional
+    public MembershipBatchResult applyMembershipBatch(Long workspaceId, Map<Long, Role> grants, Set<Long> revocations) {
+        Set<Long> requested = new HashSet<>(grants.keySet());
+        requested.addAll(revocations);
+        if (requested.isEmpty()) {
+            return new MembershipBatchResult(0, 0, List.of());
+        }
 
+        Set<Long> known = new HashSet<>(userRepository.findExistingIds(requested));
+        List<Long> unknown = requested.stream()
+                .filter(id -> !known.contains(id))
+                .sorted()
+                .toList();
+
+        int granted = userWorkspaceRepository.upsertRoles(workspaceId, grants);
+        int revoked = userWorkspaceRepository.deleteByWorkspaceIdAndUserIdIn(workspaceId, revocations);
+
+        membershipVersionService.bump(known);
+        if (!known.isEmpty()) {
+            eventPublisher.publishEvent(new MembershipChangedEvent(known));
+        }
+        return new MembershipBatchResult(granted, revoked, unknown);
+    }
 }
@@ -0,0 +1,59 @@
+package mk.ukim.finki.wp.workspaces.service.domain.impl;
+
+import mk.ukim.finki.wp.workspaces.model.domain.ChangeCounter;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+import mk.ukim.finki.wp.workspaces.repository.ChangeCounterRepository;
+import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceChangeCounterService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Counts committed workspace changes in the database, so every instance reads the same count and versions built
+ * from it hold whichever instance answers. A transaction is counted once however many changes it makes, just
+ * before it commits, so the count never runs ahead of the changes visible next to it; a change made outside a
+ * transaction is counted in one of its own right after.
+ */
+@Service
+public class WorkspaceChangeCounterServiceImpl implements WorkspaceChangeCounterService {
+    static final String WORKSPACES = "workspaces";
+
+    private final ChangeCounterRepository changeCounterRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public WorkspaceChangeCounterServiceImpl(ChangeCounterRepository changeCounterRepository, PlatformTransactionManager transactionManager) {
+        this.changeCounterRepository = changeCounterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public long currentCount() {
+        return changeCounterRepository.findChangesByName(WORKSPACES).orElse(0L);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onWorkspaceChanged(WorkspaceChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (TransactionSynchronizationManager.hasResource(this)) {
+                return;
+            }
+            TransactionSynchronizationManager.bindResource(this, WORKSPACES);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(WorkspaceChangeCounterServiceImpl.this);
+                }
+            });
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (changeCounterRepository.increment(WORKSPACES) == 0) {
+                // Only a schema created by neither the migrations nor import.sql starts without the row
+                changeCounterRepository.save(new ChangeCounter(WORKSPACES, 1));
+            }
+        });
+    }
+}
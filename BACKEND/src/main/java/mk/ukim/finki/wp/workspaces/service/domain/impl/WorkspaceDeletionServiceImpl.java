@@ -0,0 +1,154 @@
+package mk.ukim.finki.wp.workspaces.service.domain.impl;
+
+import jakarta.annotation.PreDestroy;
+import mk.ukim.finki.wp.workspaces.model.enumerations.DeletionOutcome;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.events.MembershipChangedEvent;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+import mk.ukim.finki.wp.workspaces.model.projections.MembershipIdView;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.service.domain.MembershipVersionService;
+import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceDeletionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Deletes workspaces with set-based statements instead of cascading through the membership entities.
+ * Large workspaces are purged one chunk of memberships per transaction, so no transaction holds locks
+ * on more than {@code workspace.delete.chunk-size} rows. Membership versions are bumped in the same
+ * transaction that removes the memberships, and the change event is published once it has committed.
+ * <p>
+ * A workspace is marked pending delete before its purge is scheduled, and pending purges are resumed when the
+ * application starts. Purging only repeats deletes, so instances resuming the same workspace at once are harmless.
+ */
+@Service
+public class WorkspaceDeletionServiceImpl implements WorkspaceDeletionService {
+    private static final Logger log = LoggerFactory.getLogger(WorkspaceDeletionServiceImpl.class);
+
+    private final WorkspaceRepository workspaceRepository;
+    private final UserWorkspaceRepository userWorkspaceRepository;
+    private final MembershipVersionService membershipVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService purgePool;
+    private final Set<Long> purging = ConcurrentHashMap.newKeySet();
+    private final int chunkSize;
+    private final long asyncThreshold;
+
+    public WorkspaceDeletionServiceImpl(WorkspaceRepository workspaceRepository,
+                                        UserWorkspaceRepository userWorkspaceRepository,
+                                        MembershipVersionService membershipVersionService,
+                                        ApplicationEventPublisher eventPublisher,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${workspace.delete.chunk-size:5000}") int chunkSize,
+                                        @Value("${workspace.delete.async-threshold:20000}") long asyncThreshold) {
+        this.workspaceRepository = workspaceRepository;
+        this.userWorkspaceRepository = userWorkspaceRepository;
+        this.membershipVersionService = membershipVersionService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.asyncThreshold = asyncThreshold;
+        this.purgePool = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("workspace-purge-", 0).daemon().factory()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purgePool.shutdownNow();
+    }
+
+    @Override
+    public DeletionOutcome delete(Long workspaceId) {
+        boolean pending = workspaceRepository.existsByIdAndPendingDeleteTrue(workspaceId);
+        if (!pending && userWorkspaceRepository.countByWorkspaceId(workspaceId) <= asyncThreshold) {
+            deleteRemaining(workspaceId);
+            return DeletionOutcome.DELETED;
+        }
+
+        if (!pending) {
+            workspaceRepository.markPendingDelete(workspaceId);
+        }
+        schedule(workspaceId);
+        return DeletionOutcome.SCHEDULED;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingPurges() {
+        // Read-write, so it reads the primary; a replica may not have the markers yet, or the tables at all
+        List<Long> pending = transactionTemplate.execute(status -> workspaceRepository.findPendingDeleteIds());
+        if (!pending.isEmpty()) {
+            log.info("Resuming the purge of workspaces {}", pending);
+            pending.forEach(this::schedule);
+        }
+    }
+
+    @Override
+    public void purge(Long workspaceId) {
+        List<Long> memberIds;
+        do {
+            memberIds = transactionTemplate.execute(status -> {
+                // Admins stay until the last transaction, so an interrupted purge can still be deleted again
+                List<MembershipIdView> chunk = userWorkspaceRepository.findIdsByWorkspaceIdAndRoleNot(
+                        workspaceId, Role.ROLE_ADMIN, Limit.of(chunkSize));
+                userWorkspaceRepository.deleteAllByIdInBatch(chunk.stream().map(MembershipIdView::id).toList());
+                List<Long> userIds = chunk.stream().map(MembershipIdView::userId).toList();
+                membershipVersionService.bump(userIds);
+                return userIds;
+            });
+            publish(memberIds);
+        } while (memberIds.size() == chunkSize);
+
+        // Admins, and members added while the chunks were removed, go together with the workspace
+        deleteRemaining(workspaceId);
+    }
+
+    private void schedule(Long workspaceId) {
+        if (purging.add(workspaceId)) {
+            purgePool.execute(() -> {
+                try {
+                    purge(workspaceId);
+                } catch (RuntimeException exception) {
+                    log.error("Purging workspace {} failed, deleting it again or a restart resumes it", workspaceId, exception);
+                } finally {
+                    purging.remove(workspaceId);
+                }
+            });
+        }
+    }
+
+    private void deleteRemaining(Long workspaceId) {
+        List<Long> memberIds = transactionTemplate.execute(status -> {
+            List<Long> remaining = userWorkspaceRepository.findUserIdsByWorkspaceId(workspaceId);
+            userWorkspaceRepository.deleteAllByWorkspaceId(workspaceId);
+            workspaceRepository.deleteWorkspaceById(workspaceId);
+            membershipVersionService.bump(remaining);
+            // Published inside, so the deletion is counted when it commits
+            eventPublisher.publishEvent(WorkspaceChangedEvent.deleted(workspaceId));
+            return remaining;
+        });
+        publish(memberIds);
+    }
+
+    private void publish(List<Long> memberIds) {
+        if (!memberIds.isEmpty()) {
+            eventPublisher.publishEvent(new MembershipChangedEvent(Set.copyOf(memberIds)));
+        }
+    }
+}
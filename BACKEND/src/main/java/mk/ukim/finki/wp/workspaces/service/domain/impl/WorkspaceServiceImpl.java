@@ -1,28 +1,55 @@
 package mk.ukim.finki.wp.workspaces.service.domain.impl;
 
+import mk.ukim.finki.wp.workspaces.config.cache.ExistingWorkspaceIds;
+import mk.ukim.finki.wp.workspaces.config.cache.WorkspaceCatalogCache;
 import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
 import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.DeletionOutcome;
 import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceWithRoleView;
 import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
 import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
 import mk.ukim.finki.wp.workspaces.service.domain.UserWorkspaceService;
+import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceChangeCounterService;
+import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceDeletionService;
 import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class WorkspaceServiceImpl implements WorkspaceService {
     private final WorkspaceRepository workspaceRepository;
     private final UserWorkspaceRepository userWorkspaceRepository;
     private final UserWorkspaceService userWorkspaceService;
+    private final WorkspaceDeletionService workspaceDeletionService;
+    private final WorkspaceCatalogCache workspaceCatalogCache;
+    private final ExistingWorkspaceIds existingWorkspaceIds;
+    private final WorkspaceChangeCounterService workspaceChangeCounterService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate primaryReads;
 
-    public WorkspaceServiceImpl(WorkspaceRepository workspaceRepository, UserWorkspaceRepository userWorkspaceRepository, UserWorkspaceService userWorkspaceService) {
+    public WorkspaceServiceImpl(WorkspaceRepository workspaceRepository, UserWorkspaceRepository userWorkspaceRepository, UserWorkspaceService userWorkspaceService, WorkspaceDeletionService workspaceDeletionService, WorkspaceCatalogCache workspaceCatalogCache, ExistingWorkspaceIds existingWorkspaceIds, WorkspaceChangeCounterService workspaceChangeCounterService, ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.workspaceRepository = workspaceRepository;
         this.userWorkspaceRepository = userWorkspaceRepository;
         this.userWorkspaceService = userWorkspaceService;
+        this.workspaceDeletionService = workspaceDeletionService;
+        this.workspaceCatalogCache = workspaceCatalogCache;
+        this.existingWorkspaceIds = existingWorkspaceIds;
+        this.workspaceChangeCounterService = workspaceChangeCounterService;
+        this.eventPublisher = eventPublisher;
+        // Read-write, so the reads it wraps go to the primary database and not to a lagging replica
+        this.primaryReads = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -30,6 +57,43 @@ public class WorkspaceServiceImpl implements WorkspaceService {
         return workspaceRepository.findAll();
     }
 
+    @Override
+    public List<WorkspaceView> findAllViews() {
+        // A replica still behind the change that invalidated the catalog would put the old one back in the cache
+        return workspaceCatalogCache.findAllViews(countChangesOnPrimary(), () -> primaryReads.execute(status -> workspaceRepository.findAllViews()));
+    }
+
+    @Override
+    public String findChangeVersion() {
+        return Long.toString(workspaceChangeCounterService.currentCount());
+    }
+
+    /**
+     * Counted on the primary like the catalog is read there, and before it, so the catalog is never older than
+     * the version it is handed out with.
+     */
+    @Override
+    public String findCatalogChangeVersion() {
+        return Long.toString(countChangesOnPrimary());
+    }
+
+    @Override
+    public List<WorkspaceView> findPage(Long afterId, int limit) {
+        return workspaceRepository.findViewPage(afterId, Limit.of(limit));
+    }
+
+    /**
+     * Hands every workspace to the consumer in id order while the rows are read from an open cursor.
+     * Rows are read as projections, so nothing accumulates in the persistence context however large the catalog is.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachWorkspace(Consumer<WorkspaceView> consumer) {
+        try (Stream<WorkspaceView> workspaces = workspaceRepository.streamAllViews()) {
+            workspaces.forEachOrdered(consumer);
+        }
+    }
+
     @Override
     public Optional<Workspace> openWorkspace(Long workspaceId, Long userId) {
         Optional<UserWorkspace> userWorkspace = userWorkspaceRepository.findByWorkspaceIdAndUserId(workspaceId, userId);
@@ -51,7 +115,31 @@ public class WorkspaceServiceImpl implements WorkspaceService {
             workspace.setName(editWorkspace.getName());
             workspace.setDescription(editWorkspace.getDescription());
         });
-        return Optional.of(workspaceRepository.save(existingWorkspace.get()));
+        Workspace saved = workspaceRepository.save(existingWorkspace.get());
+        eventPublisher.publishEvent(WorkspaceChangedEvent.edited(saved.getId(), saved.getVersion()));
+        return Optional.of(saved);
+    }
+
+    /**
+     * Updates the workspace with one update statement. With an expected version the update only applies while the
+     * workspace is still at that version; without one the edit is unconditional. Either way the returned view
+     * carries the new version, which the change event hands to the catalog caches.
+     */
+    @Override
+    @Transactional
+    public Optional<WorkspaceView> editWorkspace(WorkspaceView existingWorkspace, Workspace editWorkspace, Long expectedVersion) {
+        int updated = expectedVersion == null
+                ? workspaceRepository.updateNameAndDescription(existingWorkspace.id(), editWorkspace.getName(), editWorkspace.getDescription())
+                : workspaceRepository.updateNameAndDescriptionIfVersion(existingWorkspace.id(), expectedVersion, editWorkspace.getName(), editWorkspace.getDescription());
+        if (updated == 0) {
+            return Optional.empty();
+        }
+        // The updated row stays locked until commit, so this reads the version written above
+        long version = expectedVersion == null
+                ? workspaceRepository.findVersionById(existingWorkspace.id()).orElseThrow()
+                : expectedVersion + 1;
+        eventPublisher.publishEvent(WorkspaceChangedEvent.edited(existingWorkspace.id(), version));
+        return Optional.of(new WorkspaceView(existingWorkspace.id(), editWorkspace.getName(), editWorkspace.getDescription(), version));
     }
 
     @Override
@@ -59,6 +147,12 @@ public class WorkspaceServiceImpl implements WorkspaceService {
         return workspaceRepository.findById(workspaceId);
     }
 
+    @Override
+    public Optional<WorkspaceView> findViewById(Long workspaceId) {
+        return existingWorkspaceIds.find(workspaceId,
+                id -> workspaceCatalogCache.findViewById(id, workspaceRepository::findViewById));
+    }
+
     @Override
     public List<UserWorkspace> findAllPerUser(Long userId) {
 
@@ -66,18 +160,24 @@ public class WorkspaceServiceImpl implements WorkspaceService {
     }
 
     @Override
-    public boolean deleteWorkspace(Long workspaceId, Long userId) {
-        Optional<Workspace> workspaceOptional = workspaceRepository.findById(workspaceId);
+    public List<WorkspaceWithRoleView> findAllViewsPerUser(Long userId) {
+        return userWorkspaceRepository.findWorkspacesWithRoleByUserId(userId);
+    }
 
-        Map<Long, Role> workspaceWithRole =  userWorkspaceService.workspacesWithRolesForUser(userId);
-        if (workspaceOptional.isPresent()) {
-            Workspace workspace = workspaceOptional.get();
+    @Override
+    public List<WorkspaceWithRoleView> findPagePerUser(Long userId, Long afterId, int limit) {
+        return userWorkspaceRepository.findPageByUserId(userId, afterId, Limit.of(limit));
+    }
 
-            if (workspaceWithRole.containsKey(workspace.getId()) && workspaceWithRole.get(workspaceId).equals(Role.ROLE_ADMIN)) {
-                workspaceRepository.delete(workspace);
-                return true;
-            }
+    @Override
+    public DeletionOutcome deleteWorkspace(Long workspaceId, Long userId) {
+        if (userWorkspaceService.findRole(workspaceId, userId).orElse(null) != Role.ROLE_ADMIN) {
+            return DeletionOutcome.NOT_FOUND;
         }
-        return false;
+        return workspaceDeletionService.delete(workspaceId);
+    }
+
+    private long countChangesOnPrimary() {
+        return primaryReads.execute(status -> workspaceChangeCounterService.currentCount());
     }
 }
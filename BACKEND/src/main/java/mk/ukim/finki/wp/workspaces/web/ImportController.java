@@ -0,0 +1,80 @@
+package mk.ukim.finki.wp.workspaces.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import mk.ukim.finki.wp.workspaces.dto.ImportSummaryDto;
+import mk.ukim.finki.wp.workspaces.model.exceptions.AccessDeniedException;
+import mk.ukim.finki.wp.workspaces.model.exceptions.UnauthorizedException;
+import mk.ukim.finki.wp.workspaces.model.imports.ImportFormat;
+import mk.ukim.finki.wp.workspaces.security.UserPrincipal;
+import mk.ukim.finki.wp.workspaces.service.application.ImportApplicationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/admin")
+@Tag(name = "Admin API", description = "Endpoints reserved for application administrators")
+public class ImportController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final ImportApplicationService importApplicationService;
+    private final Set<String> adminUsernames;
+
+    public ImportController(ImportApplicationService importApplicationService,
+                            @Value("${security.admin-usernames:}") Set<String> adminUsernames) {
+        this.importApplicationService = importApplicationService;
+        this.adminUsernames = Set.copyOf(adminUsernames);
+    }
+
+    @Operation(summary = "Import NDJSON", description = "Creates users, workspaces and memberships from one JSON object per line.")
+    @ApiResponses(
+            value = {@ApiResponse(
+                    responseCode = "200",
+                    description = "Import finished; rejected rows are listed in the summary"
+            ), @ApiResponse(
+                    responseCode = "403", description = "The caller is not an administrator"
+            )}
+    )
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportSummaryDto importNdjson(InputStream body) throws IOException {
+        requireAdmin();
+        return importApplicationService.importRows(body, ImportFormat.NDJSON);
+    }
+
+    @Operation(summary = "Import CSV", description = "Creates users, workspaces and memberships from CSV rows with a header line.")
+    @ApiResponses(
+            value = {@ApiResponse(
+                    responseCode = "200",
+                    description = "Import finished; rejected rows are listed in the summary"
+            ), @ApiResponse(
+                    responseCode = "403", description = "The caller is not an administrator"
+            )}
+    )
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ImportSummaryDto importCsv(InputStream body) throws IOException {
+        requireAdmin();
+        return importApplicationService.importRows(body, ImportFormat.CSV);
+    }
+
+    private void requireAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal loggedInUser)) {
+            throw new UnauthorizedException("Missing or invalid Authorization header");
+        }
+        if (!adminUsernames.contains(loggedInUser.username())) {
+            throw new AccessDeniedException("Access denied: only administrators can import data", HttpServletResponse.SC_FORBIDDEN);
+        }
+    }
+}
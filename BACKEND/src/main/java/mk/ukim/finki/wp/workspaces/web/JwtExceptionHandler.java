@@ -7,7 +7,10 @@ import io.swagger.v3.oas.annotations.Hidden;
 import jakarta.servlet.http.HttpServletRequest;
 import mk.ukim.finki.wp.workspaces.dto.JwtExceptionResponse;
 import mk.ukim.finki.wp.workspaces.model.exceptions.AccessDeniedException;
+import mk.ukim.finki.wp.workspaces.model.exceptions.InvalidArgumentsException;
+import mk.ukim.finki.wp.workspaces.model.exceptions.LoadTimeoutException;
 import mk.ukim.finki.wp.workspaces.model.exceptions.NotFoundException;
+import mk.ukim.finki.wp.workspaces.model.exceptions.PreconditionFailedException;
 import mk.ukim.finki.wp.workspaces.model.exceptions.UnauthorizedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -58,6 +61,18 @@ public class JwtExceptionHandler {
         );
     }
 
+    @ExceptionHandler(InvalidArgumentsException.class)
+    public ResponseEntity<JwtExceptionResponse> handleInvalidArgumentsException(
+            InvalidArgumentsException exception,
+            HttpServletRequest request
+    ) {
+        return buildJwtExceptionResponse(
+                HttpStatus.BAD_REQUEST,
+                exception.getMessage(),
+                request.getRequestURI()
+        );
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<JwtExceptionResponse> handleNotFoundException(
             NotFoundException exception,
@@ -70,5 +85,27 @@ public class JwtExceptionHandler {
         );
     }
 
+    @ExceptionHandler(LoadTimeoutException.class)
+    public ResponseEntity<JwtExceptionResponse> handleLoadTimeoutException(
+            LoadTimeoutException exception,
+            HttpServletRequest request
+    ) {
+        return buildJwtExceptionResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                exception.getMessage(),
+                request.getRequestURI()
+        );
+    }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<JwtExceptionResponse> handlePreconditionFailedException(
+            PreconditionFailedException exception,
+            HttpServletRequest request
+    ) {
+        return buildJwtExceptionResponse(
+                HttpStatus.PRECONDITION_FAILED,
+                exception.getMessage(),
+                request.getRequestURI()
+        );
+    }
 }
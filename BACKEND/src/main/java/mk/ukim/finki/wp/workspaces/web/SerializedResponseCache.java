@@ -0,0 +1,165 @@
+package mk.ukim.finki.wp.workspaces.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mk.ukim.finki.wp.workspaces.model.events.MembershipChangedEvent;
+import mk.ukim.finki.wp.workspaces.model.events.UserDeletedEvent;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response bodies of the workspace listings, kept serialized and, above {@code web.response-cache.gzip-min-size},
+ * gzip-compressed at the best level, so an unchanged listing is neither serialized nor compressed again.
+ * Each entry remembers the version it was built from and is rebuilt when a request brings another one;
+ * change events only free the memory of entries that can no longer be served.
+ */
+@Component
+public class SerializedResponseCache {
+    private static final String CATALOG = "catalog";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int gzipMinSize;
+    private final Cache<String, SerializedBody> cache;
+
+    public SerializedResponseCache(
+            ObjectMapper objectMapper,
+            @Value("${web.response-cache.enabled:true}") boolean enabled,
+            @Value("${web.response-cache.maximum-size:64MB}") DataSize maximumSize,
+            @Value("${web.response-cache.ttl:10m}") Duration ttl,
+            @Value("${web.response-cache.gzip-min-size:1KB}") DataSize gzipMinSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.gzipMinSize = (int) gzipMinSize.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((String key, SerializedBody body) -> body.size())
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "serializedResponses");
+    }
+
+    public SerializedBody catalog(String version, Supplier<?> body) {
+        return get(CATALOG, version, body);
+    }
+
+    public SerializedBody myWorkspaces(Long userId, String version, Supplier<?> body) {
+        return get(myWorkspacesKey(userId), version, body);
+    }
+
+    @EventListener
+    public void onWorkspaceChanged(WorkspaceChangedEvent event) {
+        cache.invalidate(CATALOG);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        cache.invalidateAll(event.userIds().stream().map(SerializedResponseCache::myWorkspacesKey).toList());
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        cache.invalidate(myWorkspacesKey(event.userId()));
+    }
+
+    private SerializedBody get(String key, String version, Supplier<?> body) {
+        if (!enabled) {
+            return serialize(version, body.get());
+        }
+        SerializedBody cached = cache.getIfPresent(key);
+        if (cached != null && cached.version().equals(version)) {
+            return cached;
+        }
+        // Racing requests with different versions may replace each other's entry, which only costs a rebuild
+        SerializedBody serialized = serialize(version, body.get());
+        cache.put(key, serialized);
+        return serialized;
+    }
+
+    private SerializedBody serialize(String version, Object body) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(body);
+            return new SerializedBody(version, identity, identity.length >= gzipMinSize ? gzip(identity) : null);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static byte[] gzip(byte[] identity) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(identity.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gzip.write(identity);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static String myWorkspacesKey(Long userId) {
+        return "my-workspaces-" + userId;
+    }
+
+    /**
+     * @param gzip the compressed body, {@code null} when the body is too small to be worth compressing
+     */
+    public record SerializedBody(String version, byte[] identity, byte[] gzip) {
+        private static final Pattern NO_QUALITY = Pattern.compile("0(\\.0{0,3})?");
+
+        int size() {
+            return identity.length + (gzip == null ? 0 : gzip.length);
+        }
+
+        public ResponseEntity<byte[]> toResponse(String acceptEncoding) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (gzip != null && acceptsGzip(acceptEncoding)) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+            }
+            return response.body(identity);
+        }
+
+        private static boolean acceptsGzip(String acceptEncoding) {
+            if (acceptEncoding == null) {
+                return false;
+            }
+            for (String coding : acceptEncoding.split(",")) {
+                String[] parameters = coding.split(";");
+                String name = parameters[0].trim();
+                if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                    for (int i = 1; i < parameters.length; i++) {
+                        String parameter = parameters[i].trim();
+                        if (parameter.startsWith("q=") && NO_QUALITY.matcher(parameter.substring(2)).matches()) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
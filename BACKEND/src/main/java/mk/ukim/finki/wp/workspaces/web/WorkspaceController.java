@@ -1,87 +1,235 @@
 package mk.ukim.finki.wp.workspaces.web;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import mk.ukim.finki.wp.workspaces.dto.CursorPageDto;
 import mk.ukim.finki.wp.workspaces.dto.DisplayWorkspaceDto;
 import mk.ukim.finki.wp.workspaces.dto.EditWorkspaceDto;
+import mk.ukim.finki.wp.workspaces.dto.MembershipBatchDto;
+import mk.ukim.finki.wp.workspaces.dto.MembershipBatchResultDto;
 import mk.ukim.finki.wp.workspaces.dto.WorkspaceWithRoleDto;
-import mk.ukim.finki.wp.workspaces.model.domain.User;
 import mk.ukim.finki.wp.workspaces.model.exceptions.AccessDeniedException;
+import mk.ukim.finki.wp.workspaces.model.exceptions.InvalidArgumentsException;
+import mk.ukim.finki.wp.workspaces.model.exceptions.PreconditionFailedException;
+import mk.ukim.finki.wp.workspaces.model.exceptions.UnauthorizedException;
+import mk.ukim.finki.wp.workspaces.security.UserPrincipal;
 import mk.ukim.finki.wp.workspaces.service.application.WorkspaceApplicationService;
 import mk.ukim.finki.wp.workspaces.service.application.impl.WorkspaceApplicationServiceImpl;
 import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceService;
 import org.springdoc.api.ErrorMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/workspace")
 @Tag(name = "Workspace API", description = "Endpoints for accessing workspaces")
 public class WorkspaceController {
     private final WorkspaceApplicationService workspaceApplicationService;
-
-    public WorkspaceController(WorkspaceApplicationService workspaceApplicationService) {
+    private final int maxPageSize;
+    private final int maxMembersBatchSize;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter elementWriter;
+    private final SerializedResponseCache responseCache;
+
+    public WorkspaceController(WorkspaceApplicationService workspaceApplicationService,
+                               @Value("${workspace.page.max-size:100}") int maxPageSize,
+                               @Value("${workspace.members.max-batch-size:10000}") int maxMembersBatchSize,
+                               ObjectMapper objectMapper,
+                               SerializedResponseCache responseCache) {
         this.workspaceApplicationService = workspaceApplicationService;
+        this.responseCache = responseCache;
+        this.maxPageSize = maxPageSize;
+        this.maxMembersBatchSize = maxMembersBatchSize;
+        this.objectMapper = objectMapper;
+        this.elementWriter = objectMapper.writerFor(DisplayWorkspaceDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @Operation(summary = "Get all workspaces", description = "Retrieves a list of all workspace.")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = DisplayWorkspaceDto.class))))
     @GetMapping
-    public List<DisplayWorkspaceDto> findAll() {
-        return workspaceApplicationService.findAll();
+    public ResponseEntity<byte[]> findAll(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return responseCache.catalog(workspaceApplicationService.findCatalogVersion(), workspaceApplicationService::findAll)
+                .toResponse(acceptEncoding);
+    }
+
+    @Operation(summary = "Stream all workspaces", description = "Writes every workspace as one JSON array while it is read from the database.")
+    @GetMapping(params = {"stream=true", "!size"})
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                workspaceApplicationService.forEachWorkspace(workspace -> {
+                    try {
+                        elementWriter.writeValue(generator, workspace);
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Get a page of workspaces", description = "Retrieves workspaces ordered by id, continuing after the given cursor.")
+    @GetMapping(params = "size")
+    public CursorPageDto<DisplayWorkspaceDto> findPage(@RequestParam int size,
+                                                       @RequestParam(required = false) String cursor) {
+        return workspaceApplicationService.findPage(cursor, pageSize(size));
     }
 
     @Operation(summary = "Get my workspaces", description = "Retrieves a list of all of my workspaces.")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = WorkspaceWithRoleDto.class))))
     @GetMapping("/my-workspaces")
-    public List<WorkspaceWithRoleDto> findMyWorkspaces() {
+    public ResponseEntity<byte[]> findMyWorkspaces(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                   WebRequest webRequest) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal loggedInUser = (UserPrincipal) authentication.getPrincipal();
+
+        // Checked before the listing is read, an unchanged one is answered from the two version lookups
+        String version = workspaceApplicationService.findMyWorkspacesVersion(loggedInUser.id());
+        if (webRequest.checkNotModified(myWorkspacesETag(loggedInUser.id(), version))) {
+            return null;
+        }
+        return responseCache.myWorkspaces(loggedInUser.id(), version, () -> workspaceApplicationService.findAllPerUser(loggedInUser.id()))
+                .toResponse(acceptEncoding);
+    }
+
+    @Operation(summary = "Get a page of my workspaces", description = "Retrieves my workspaces ordered by id, continuing after the given cursor.")
+    @GetMapping(value = "/my-workspaces", params = "size")
+    public ResponseEntity<CursorPageDto<WorkspaceWithRoleDto>> findMyWorkspacesPage(@RequestParam int size,
+                                                                                    @RequestParam(required = false) String cursor,
+                                                                                    WebRequest webRequest) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User loggedInUser = (User) authentication.getPrincipal();
+        UserPrincipal loggedInUser = (UserPrincipal) authentication.getPrincipal();
 
-        return workspaceApplicationService.findAllPerUser(loggedInUser.getId());
+        String version = workspaceApplicationService.findMyWorkspacesVersion(loggedInUser.id());
+        if (webRequest.checkNotModified(myWorkspacesETag(loggedInUser.id(), version))) {
+            return null;
+        }
+        return ResponseEntity.ok(workspaceApplicationService.findPagePerUser(loggedInUser.id(), cursor, pageSize(size)));
     }
 
-    @Operation(summary = "Access a workspaces", description = "Access one workspace.")
+    @Operation(summary = "Access a workspaces", description = "Access one workspace. Answers 304 when If-None-Match holds its current ETag.")
     @GetMapping("/{id}")
-    public ResponseEntity<DisplayWorkspaceDto> accessWorkspace(@PathVariable Long id) {
+    public ResponseEntity<DisplayWorkspaceDto> accessWorkspace(@PathVariable Long id, WebRequest webRequest) {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User loggedInUser = (User) authentication.getPrincipal();
+        UserPrincipal loggedInUser = (UserPrincipal) authentication.getPrincipal();
 
-        return workspaceApplicationService.openWorkspace(id, loggedInUser.getId())
+        Optional<Long> version = workspaceApplicationService.findWorkspaceVersion(id);
+        if (version.isPresent() && webRequest.checkNotModified(workspaceETag(id, version.get()))) {
+            return null;
+        }
+
+        return workspaceApplicationService.openWorkspace(id, loggedInUser.id())
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
 
     }
 
-    @Operation(summary = "Edit a workspaces", description = "Edit one workspace.")
+    @Operation(summary = "Edit a workspaces", description = "Edit one workspace. With If-Match the edit only applies to the version named by the ETag.")
     @PostMapping("/edit/{id}")
-    public ResponseEntity<EditWorkspaceDto> editWorkspace(@PathVariable Long id,  @RequestBody EditWorkspaceDto editWorkspaceDto) {
+    public ResponseEntity<EditWorkspaceDto> editWorkspace(@PathVariable Long id,  @RequestBody EditWorkspaceDto editWorkspaceDto,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User loggedInUser = (User) authentication.getPrincipal();
+        UserPrincipal loggedInUser = (UserPrincipal) authentication.getPrincipal();
 
-        return workspaceApplicationService.editWorkspace(id, loggedInUser.getId(), editWorkspaceDto)
-                .map(ResponseEntity::ok)
+        Long expectedVersion = ifMatch == null ? null : expectedVersion(id, ifMatch);
+        return workspaceApplicationService.editWorkspace(id, loggedInUser.id(), editWorkspaceDto, expectedVersion)
+                .map(edited -> expectedVersion == null
+                        ? ResponseEntity.ok(edited)
+                        : ResponseEntity.ok().eTag(workspaceETag(id, expectedVersion + 1)).body(edited))
                 .orElseGet(() -> ResponseEntity.notFound().build());
 
     }
 
-    @Operation(summary = "Delete a workspace", description = "Deletes a workspace.")
+    @Operation(summary = "Delete a workspace", description = "Deletes a workspace. Very large workspaces are deleted in the background.")
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<String> deleteWorkspace(@PathVariable Long id) {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User loggedInUser = (User) authentication.getPrincipal();
+        UserPrincipal loggedInUser = (UserPrincipal) authentication.getPrincipal();
+
+        return switch (workspaceApplicationService.deleteWorkspace(id, loggedInUser.id())) {
+            case DELETED -> ResponseEntity.ok("Workspace deleted successfully");
+            case SCHEDULED -> ResponseEntity.accepted().body("Workspace deletion started");
+            case NOT_FOUND -> ResponseEntity.status(404).body("Workspace not found");
+        };
+    }
+
+    @Operation(summary = "Update workspace members", description = "Grants, changes or revokes many memberships of one workspace at once.")
+    @PostMapping("/{id}/members:batch")
+    public MembershipBatchResultDto updateMembers(@PathVariable Long id, @RequestBody MembershipBatchDto membershipBatchDto) {
+        if (membershipBatchDto.grant().size() + membershipBatchDto.revoke().size() > maxMembersBatchSize) {
+            throw new InvalidArgumentsException("At most " + maxMembersBatchSize + " members can be updated at once");
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // Checked here as well as in the access filter, granting roles must never be reachable anonymously
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal loggedInUser)) {
+            throw new UnauthorizedException("Missing or invalid Authorization header");
+        }
+        return workspaceApplicationService.updateMembers(id, loggedInUser.id(), membershipBatchDto);
+    }
+
+    private int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, maxPageSize));
+    }
+
+    private static String myWorkspacesETag(Long userId, String version) {
+        return "\"my-" + userId + "-" + version + "\"";
+    }
+
+    private static String workspaceETag(Long workspaceId, long version) {
+        return "\"" + workspaceId + "-" + version + "\"";
+    }
 
-        boolean isDeleted = workspaceApplicationService.deleteWorkspace(id, loggedInUser.getId());
-        if (isDeleted) {
-            return ResponseEntity.ok("Workspace deleted successfully");
-        } else {
-            return ResponseEntity.status(404).body("Workspace not found");
+    /**
+     * Version named by a strong {@code If-Match} ETag of this workspace, or {@code null} for {@code *}.
+     */
+    private static Long expectedVersion(Long workspaceId, String ifMatch) {
+        String prefix = workspaceId + "-";
+        for (ETag eTag : ETag.parse(ifMatch)) {
+            if (eTag.isWildcard()) {
+                return null;
+            }
+            if (!eTag.weak() && eTag.tag().startsWith(prefix)) {
+                try {
+                    return Long.parseLong(eTag.tag().substring(prefix.length()));
+                } catch (NumberFormatException ignored) {
+                    // not one of our tags, keep looking
+                }
+            }
         }
+        throw new PreconditionFailedException("If-Match does not name a version of workspace " + workspaceId);
     }
 
 }
@@ -0,0 +1,25 @@
+-- Schema as previously generated by hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version and skip it.
+
+create table if not exists "workspace_user"
+(
+    "id"       bigint generated by default as identity primary key,
+    "username" varchar(255),
+    "email"    varchar(255),
+    "password" varchar(255)
+);
+
+create table if not exists "workspace"
+(
+    "id"          bigint generated by default as identity primary key,
+    "name"        varchar(255),
+    "description" varchar(255)
+);
+
+create table if not exists "user_workspace"
+(
+    "id"           bigint generated by default as identity primary key,
+    "user_id"      bigint references "workspace_user" ("id"),
+    "workspace_id" bigint references "workspace" ("id"),
+    "role"         varchar(255) check ("role" in ('ROLE_ADMIN', 'ROLE_VISITOR'))
+);
@@ -0,0 +1,49 @@
+-- The baseline schema did not enforce uniqueness, so duplicates are merged before the unique indexes are created.
+-- Users sharing a username are folded into the one with the lowest id; login could not tell them apart anyway.
+update "user_workspace" uw
+set "user_id" = (select min(k."id")
+                 from "workspace_user" k
+                          join "workspace_user" d on d."username" = k."username"
+                 where d."id" = uw."user_id")
+where exists (select 1
+              from "workspace_user" k
+                       join "workspace_user" d on d."username" = k."username"
+              where d."id" = uw."user_id"
+                and k."id" < d."id");
+
+delete
+from "workspace_user" u
+where exists (select 1 from "workspace_user" k where k."username" = u."username" and k."id" < u."id");
+
+-- Of repeated memberships the one with the lowest id stays, as admin if any of them was.
+update "user_workspace" uw
+set "role" = 'ROLE_ADMIN'
+where exists (select 1
+              from "user_workspace" d
+              where d."user_id" = uw."user_id"
+                and d."workspace_id" = uw."workspace_id"
+                and d."role" = 'ROLE_ADMIN');
+
+delete
+from "user_workspace" uw
+where exists (select 1
+              from "user_workspace" k
+              where k."user_id" = uw."user_id"
+                and k."workspace_id" = uw."workspace_id"
+                and k."id" < uw."id");
+
+-- Login, registration and authentication look users up by username.
+create unique index if not exists "ux_workspace_user_username" on "workspace_user" ("username");
+
+-- Membership lookups by user, and by (workspace, user) on every workspace access.
+create unique index if not exists "ux_user_workspace_user_workspace" on "user_workspace" ("user_id", "workspace_id");
+
+-- Member lists and role checks per workspace.
+create index if not exists "ix_user_workspace_workspace_role" on "user_workspace" ("workspace_id", "role");
+
+-- Bumped on every membership change to outdate the tokens issued before it. Not part of the baseline, a
+-- database baselined at V1 gets it here; one that ran ddl-auto=update with the column already has it.
+alter table "workspace_user" add column if not exists "membership_version" bigint;
+update "workspace_user" set "membership_version" = 0 where "membership_version" is null;
+alter table "workspace_user" alter column "membership_version" set default 0;
+alter table "workspace_user" alter column "membership_version" set not null;
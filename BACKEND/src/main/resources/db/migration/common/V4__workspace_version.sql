@@ -0,0 +1,2 @@
+-- Optimistic locking for workspace edits, also used to build the workspace ETag.
+alter table "workspace" add column if not exists "version" bigint default 0 not null;
@@ -0,0 +1,2 @@
+-- Set while a large workspace is purged in the background, so an interrupted purge is resumed on startup.
+alter table "workspace" add column if not exists "pending_delete" boolean default false not null;
@@ -0,0 +1,8 @@
+-- Counts committed workspace changes, the version every instance builds the catalog ETags from.
+create table if not exists "change_counter"
+(
+    "name"    varchar(255) primary key,
+    "changes" bigint default 0 not null
+);
+
+insert into "change_counter" ("name", "changes") values ('workspaces', 0);
@@ -0,0 +1,10 @@
+-- Sequences for the pooled id generators (allocationSize = 50), see the PostgreSQL variant.
+
+create sequence if not exists "workspace_user_seq" start with 1 increment by 50;
+alter sequence "workspace_user_seq" restart with (select coalesce(max("id"), 0) + 50 from "workspace_user");
+
+create sequence if not exists "workspace_seq" start with 1 increment by 50;
+alter sequence "workspace_seq" restart with (select coalesce(max("id"), 0) + 50 from "workspace");
+
+create sequence if not exists "user_workspace_seq" start with 1 increment by 50;
+alter sequence "user_workspace_seq" restart with (select coalesce(max("id"), 0) + 50 from "user_workspace");
@@ -0,0 +1,12 @@
+-- Sequences for the pooled id generators (allocationSize = 50).
+-- The pooled optimizer treats each value as the top of its block, so the next value is set one
+-- block above the highest existing id to keep new ids clear of rows inserted through identity.
+
+create sequence if not exists "workspace_user_seq" start with 1 increment by 50;
+select setval('"workspace_user_seq"', (select coalesce(max("id"), 0) from "workspace_user") + 50, false);
+
+create sequence if not exists "workspace_seq" start with 1 increment by 50;
+select setval('"workspace_seq"', (select coalesce(max("id"), 0) from "workspace") + 50, false);
+
+create sequence if not exists "user_workspace_seq" start with 1 increment by 50;
+select setval('"user_workspace_seq"', (select coalesce(max("id"), 0) from "user_workspace") + 50, false);
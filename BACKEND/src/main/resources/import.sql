@@ -0,0 +1,2 @@
+-- Run by Hibernate when it creates the schema itself, as the h2 profile does; migrations seed the row otherwise.
+insert into change_counter (name, changes) values ('workspaces', 0);
@@ -0,0 +1,62 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,metrics")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtHelper jwtHelper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    public void cleanUp() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testHealth_OpenToAnonymousClients() throws Exception {
+        // Some indicators are down against the in-memory database, so only the authorization is checked
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isNotIn(401, 403));
+    }
+
+    @Test
+    public void testMetrics_RejectsAnonymousClients() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testMetrics_ServedWithToken() throws Exception {
+        String username = "metrics" + System.nanoTime();
+        User user = userRepository.save(new User(username, username + "@example.com", "password"));
+        String token = jwtHelper.generateTokenWithWorkspacesAccess(user, Map.of());
+
+        mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+}
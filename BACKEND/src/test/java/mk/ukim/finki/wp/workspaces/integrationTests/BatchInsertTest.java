@@ -0,0 +1,95 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+public class BatchInsertTest {
+
+    private static final int ROWS = 120;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private UserWorkspaceRepository userWorkspaceRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String username = "batch" + System.nanoTime();
+        user = userRepository.save(new User(username, username + "@example.com", "password"));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userWorkspaceRepository.deleteAllInBatch();
+        workspaceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testSaveAll_InsertsInJdbcBatches() {
+        // Given
+        List<Workspace> workspaces = IntStream.range(0, ROWS)
+                .mapToObj(i -> new Workspace("Batch " + i, "Batch workspace " + i))
+                .toList();
+        statistics.clear();
+
+        // When
+        List<Workspace> saved = workspaceRepository.saveAll(workspaces);
+
+        // Then: three sequence calls and three insert batches instead of one round trip per row
+        assertThat(saved).extracting(Workspace::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    public void testSaveAll_MembershipsInJdbcBatches() {
+        // Given
+        List<Workspace> workspaces = workspaceRepository.saveAll(IntStream.range(0, ROWS)
+                .mapToObj(i -> new Workspace("Member " + i, "Member workspace " + i))
+                .toList());
+        List<UserWorkspace> memberships = workspaces.stream()
+                .map(workspace -> new UserWorkspace(user, workspace, Role.ROLE_VISITOR))
+                .toList();
+        statistics.clear();
+
+        // When
+        userWorkspaceRepository.saveAll(memberships);
+
+        // Then
+        assertThat(userWorkspaceRepository.findWorkspacesWithRoleByUserId(user.getId())).hasSize(ROWS);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(7);
+    }
+}
@@ -0,0 +1,177 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceWithRoleView;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "security.admin-usernames=importadmin",
+        "import.batch-size=3",
+        "import.max-reported-errors=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class BulkImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtHelper jwtHelper;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private UserWorkspaceRepository userWorkspaceRepository;
+
+    private String adminToken;
+
+    @BeforeEach
+    public void setUp() {
+        User admin = userRepository.save(new User("importadmin", "importadmin@example.com", "password"));
+        adminToken = jwtHelper.generateToken(admin);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userWorkspaceRepository.deleteAllInBatch();
+        workspaceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testImportNdjson_CreatesRowsAcrossBatches() throws Exception {
+        // Given: with a batch size of 3 the memberships refer to users and a workspace from earlier batches
+        Workspace existing = workspaceRepository.save(new Workspace("Existing", "Existing workspace"));
+        String body = String.join("\n",
+                "{\"type\":\"user\",\"username\":\"ana\",\"email\":\"ana@example.com\",\"password\":\"secret\"}",
+                "{\"type\":\"user\",\"username\":\"bob\",\"email\":\"bob@example.com\",\"password\":\"secret\"}",
+                "{\"type\":\"workspace\",\"key\":\"onboarding\",\"name\":\"Onboarding\",\"description\":\"New customer\"}",
+                "",
+                "{\"type\":\"membership\",\"username\":\"ana\",\"workspace\":\"onboarding\",\"role\":\"admin\"}",
+                "{\"type\":\"membership\",\"username\":\"bob\",\"workspace\":\"onboarding\",\"role\":\"ROLE_VISITOR\"}",
+                "{\"type\":\"membership\",\"username\":\"bob\",\"workspace\":\"" + existing.getId() + "\",\"role\":\"visitor\"}"
+        );
+
+        // When & Then
+        mockMvc.perform(post("/api/admin/import")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(6))
+                .andExpect(jsonPath("$.usersCreated").value(2))
+                .andExpect(jsonPath("$.workspacesCreated").value(1))
+                .andExpect(jsonPath("$.membershipsCreated").value(3))
+                .andExpect(jsonPath("$.rowsRejected").value(0));
+
+        User ana = userRepository.findByUsername("ana").orElseThrow();
+        assertThat(passwordEncoder.matches("secret", ana.getPassword())).isTrue();
+        assertThat(userWorkspaceRepository.findWorkspacesWithRoleByUserId(ana.getId()))
+                .extracting(WorkspaceWithRoleView::name, WorkspaceWithRoleView::role)
+                .containsExactly(tuple("Onboarding", Role.ROLE_ADMIN));
+        Long bobId = userRepository.findByUsername("bob").orElseThrow().getId();
+        assertThat(userWorkspaceRepository.findWorkspacesWithRoleByUserId(bobId)).hasSize(2);
+    }
+
+    @Test
+    public void testImportNdjson_ReportsRejectedRows() throws Exception {
+        // Given
+        String body = String.join("\n",
+                "{\"type\":\"user\",\"username\":\"ana\",\"email\":\"ana@example.com\",\"password\":\"secret\"}",
+                "{\"type\":\"user\",\"username\":\"ana\",\"email\":\"other@example.com\",\"password\":\"secret\"}",
+                "not json",
+                "{\"type\":\"membership\",\"username\":\"nobody\",\"workspace\":\"1\",\"role\":\"admin\"}"
+        );
+
+        // When & Then: every rejection is counted, only the first two are listed
+        mockMvc.perform(post("/api/admin/import")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(4))
+                .andExpect(jsonPath("$.usersCreated").value(1))
+                .andExpect(jsonPath("$.rowsRejected").value(3))
+                .andExpect(jsonPath("$.errors.length()").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("Malformed JSON"))
+                .andExpect(jsonPath("$.errors[1].line").value(2))
+                .andExpect(jsonPath("$.errors[1].message").value("Username already exists"))
+                .andExpect(jsonPath("$.errorsTruncated").value(true));
+
+        assertThat(userRepository.findByUsername("ana").orElseThrow().getEmail()).isEqualTo("ana@example.com");
+    }
+
+    @Test
+    public void testImportCsv_ReadsColumnsByHeader() throws Exception {
+        // Given
+        String body = String.join("\r\n",
+                "type,username,email,password,key,name,description,workspace,role",
+                "user,ana,ana@example.com,\"se,cret\",,,,,",
+                "workspace,,,,team,\"Team \"\"A\"\"\",Quoted name,,",
+                "membership,ana,,,,,,team,visitor"
+        );
+
+        // When & Then
+        mockMvc.perform(post("/api/admin/import")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(3))
+                .andExpect(jsonPath("$.membershipsCreated").value(1))
+                .andExpect(jsonPath("$.rowsRejected").value(0));
+
+        User ana = userRepository.findByUsername("ana").orElseThrow();
+        assertThat(passwordEncoder.matches("se,cret", ana.getPassword())).isTrue();
+        List<WorkspaceWithRoleView> workspaces = userWorkspaceRepository.findWorkspacesWithRoleByUserId(ana.getId());
+        assertThat(workspaces).extracting(WorkspaceWithRoleView::name).containsExactly("Team \"A\"");
+    }
+
+    @Test
+    public void testImport_RejectsNonAdministrators() throws Exception {
+        // Given
+        User member = userRepository.save(new User("importmember", "importmember@example.com", "password"));
+        String token = jwtHelper.generateToken(member);
+
+        // When & Then
+        mockMvc.perform(post("/api/admin/import")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"type\":\"user\",\"username\":\"ana\",\"email\":\"ana@example.com\",\"password\":\"secret\"}"))
+                .andExpect(status().isForbidden());
+
+        assertThat(userRepository.findByUsername("ana")).isEmpty();
+    }
+}
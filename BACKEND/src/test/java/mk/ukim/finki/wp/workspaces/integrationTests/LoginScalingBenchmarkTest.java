@@ -0,0 +1,153 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import mk.ukim.finki.wp.workspaces.dto.LoginUserDto;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.service.application.UserApplicationService;
+import mk.ukim.finki.wp.workspaces.service.domain.UserWorkspaceService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Login time, and the membership lookup inside it, as the total number of memberships across all users grows.
+ * The indexed projection query is compared with the full-table scan it replaced; the scan is only measured up to
+ * {@link #MAX_SCANNED_MEMBERSHIPS} memberships, beyond that it runs out of memory.
+ * Run with {@code mvn test -Dtest=LoginScalingBenchmarkTest -Dbenchmark.memberships=1000,100000,1000000,10000000}.
+ * Ten million memberships need a heap of several gigabytes.
+ */
+@SpringBootTest(properties = {
+        // Logs the statistics of every session otherwise, which costs more than the lookups
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+@ActiveProfiles("h2")
+@EnabledIfSystemProperty(named = "benchmark.memberships", matches = "\\d+(,\\d+)*")
+public class LoginScalingBenchmarkTest {
+
+    private static final int MAX_SCANNED_MEMBERSHIPS = 100_000;
+    private static final int MEMBERSHIPS_PER_USER = 10;
+    private static final int WORKSPACES = 1_000;
+    // Far above the ids the sequences hand out, so the seeded rows never collide with saved entities
+    private static final long SEEDED_ID_BASE = 1_000_000_000L;
+    private static final int LOOKUPS = 200;
+    private static final int LOGINS = 20;
+
+    @Autowired
+    private UserApplicationService userApplicationService;
+
+    @Autowired
+    private UserWorkspaceService userWorkspaceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private UserWorkspaceRepository userWorkspaceRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long seededMemberships;
+    private long seededUsers;
+
+    @Test
+    public void compareProjectionWithScanAsMembershipsGrow() {
+        long[] sizes = Arrays.stream(System.getProperty("benchmark.memberships").split(","))
+                .mapToLong(Long::parseLong)
+                .sorted()
+                .toArray();
+        User user = createLoginUser();
+        jdbcTemplate.update("insert into workspace (id, name, description, version) " +
+                "select x, 'Seeded ' || x, 'Seeded workspace', 0 from system_range(?, ?)",
+                SEEDED_ID_BASE, SEEDED_ID_BASE + WORKSPACES - 1);
+
+        for (long memberships : sizes) {
+            seedMemberships(memberships);
+
+            double projection = millis(LOOKUPS, () -> userWorkspaceService.workspacesWithRolesForUser(user.getId()));
+            assertThat(userWorkspaceService.workspacesWithRolesForUser(user.getId())).hasSize(MEMBERSHIPS_PER_USER);
+            String scan = "skipped";
+            if (memberships <= MAX_SCANNED_MEMBERSHIPS) {
+                scan = String.format("%.2f ms", millis(LOOKUPS / 10, () -> scanForUser(user.getId())));
+            }
+            double login = millis(LOGINS,
+                    () -> userApplicationService.login(new LoginUserDto(user.getUsername(), "password")));
+
+            System.out.printf("Login, %d memberships: role lookup %.2f ms (full scan %s), whole login %.2f ms%n",
+                    memberships, projection, scan, login);
+        }
+    }
+
+    /**
+     * What workspacesWithRolesForUser did before the projection query.
+     */
+    private Map<Long, Role> scanForUser(Long userId) {
+        return userWorkspaceRepository.findAll().stream()
+                .filter(membership -> membership.getUser().getId().equals(userId))
+                .collect(Collectors.toMap(membership -> membership.getWorkspace().getId(), UserWorkspace::getRole));
+    }
+
+    private User createLoginUser() {
+        String username = "login" + System.nanoTime();
+        User user = userRepository.save(new User(username, username + "@example.com", passwordEncoder.encode("password")));
+        for (int i = 0; i < MEMBERSHIPS_PER_USER; i++) {
+            Workspace workspace = workspaceRepository.save(new Workspace("Login " + i, "Joined by the measured user"));
+            userWorkspaceRepository.save(new UserWorkspace(user, workspace, i == 0 ? Role.ROLE_ADMIN : Role.ROLE_VISITOR));
+        }
+        seededMemberships = MEMBERSHIPS_PER_USER;
+        return user;
+    }
+
+    /**
+     * Adds other users' memberships until there are {@code total}, ten per user spread over the seeded workspaces.
+     */
+    private void seedMemberships(long total) {
+        long users = (total + MEMBERSHIPS_PER_USER - 1) / MEMBERSHIPS_PER_USER;
+        if (users > seededUsers) {
+            jdbcTemplate.update("insert into workspace_user (id, username, email, password, membership_version) " +
+                            "select x, 'seeded' || x, 'seeded' || x || '@example.com', 'password', 0 from system_range(?, ?)",
+                    SEEDED_ID_BASE + seededUsers, SEEDED_ID_BASE + users - 1);
+            seededUsers = users;
+        }
+        if (total > seededMemberships) {
+            // The ten workspaces of one user are a hundred apart, so no pair repeats
+            jdbcTemplate.update("insert into user_workspace (id, user_id, workspace_id, role) " +
+                            "select ? + x, ? + x / ?, ? + mod(x / ? * 7 + mod(x, ?) * 100, ?), 'ROLE_VISITOR' " +
+                            "from system_range(?, ?)",
+                    SEEDED_ID_BASE, SEEDED_ID_BASE, MEMBERSHIPS_PER_USER, SEEDED_ID_BASE, MEMBERSHIPS_PER_USER,
+                    MEMBERSHIPS_PER_USER, WORKSPACES, seededMemberships - MEMBERSHIPS_PER_USER, total - MEMBERSHIPS_PER_USER - 1);
+            seededMemberships = total;
+        }
+    }
+
+    private static double millis(int repetitions, Supplier<?> call) {
+        call.get();
+        long started = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            call.get();
+        }
+        return (System.nanoTime() - started) / 1e6 / repetitions;
+    }
+}
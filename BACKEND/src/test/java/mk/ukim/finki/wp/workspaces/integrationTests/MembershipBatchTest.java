@@ -0,0 +1,186 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import mk.ukim.finki.wp.workspaces.service.domain.MembershipVersionService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class MembershipBatchTest {
+
+    private static final int NEW_MEMBERS = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtHelper jwtHelper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private UserWorkspaceRepository userWorkspaceRepository;
+
+    @Autowired
+    private MembershipVersionService membershipVersionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User admin;
+    private Workspace workspace;
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        String username = "batchadmin" + System.nanoTime();
+        admin = userRepository.save(new User(username, username + "@example.com", "password"));
+        workspace = workspaceRepository.save(new Workspace("Members", "Members workspace"));
+        userWorkspaceRepository.save(new UserWorkspace(admin, workspace, Role.ROLE_ADMIN));
+        token = jwtHelper.generateTokenWithWorkspacesAccess(admin, Map.of(workspace.getId(), Role.ROLE_ADMIN));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userWorkspaceRepository.deleteAllInBatch();
+        workspaceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testUpdateMembers_UpsertsAndRevokesWithSetBasedStatements() throws Exception {
+        // Given
+        List<User> users = userRepository.saveAll(IntStream.range(0, NEW_MEMBERS)
+                .mapToObj(i -> new User("member" + i + "-" + System.nanoTime(), "member" + i + "@example.com", "password"))
+                .toList());
+        User promoted = users.get(0);
+        User revoked = users.get(1);
+        userWorkspaceRepository.saveAll(List.of(
+                new UserWorkspace(promoted, workspace, Role.ROLE_VISITOR),
+                new UserWorkspace(revoked, workspace, Role.ROLE_VISITOR)
+        ));
+        // warm the cached membership lookup that the role change has to invalidate
+        assertThat(userWorkspaceRepository.findByWorkspaceIdAndUserId(workspace.getId(), promoted.getId()))
+                .get().extracting(UserWorkspace::getRole).isEqualTo(Role.ROLE_VISITOR);
+        long promotedVersion = membershipVersionService.currentVersion(promoted.getId());
+
+        String grants = users.stream()
+                .filter(user -> !user.equals(revoked))
+                .map(user -> "{\"userId\":" + user.getId() + ",\"role\":\"" + (user.equals(promoted) ? "ROLE_ADMIN" : "ROLE_VISITOR") + "\"}")
+                .collect(Collectors.joining(","));
+        String body = "{\"grant\":[" + grants + ",{\"userId\":-1,\"role\":\"ROLE_VISITOR\"}],\"revoke\":[" + revoked.getId() + "]}";
+        statistics.clear();
+
+        // When
+        mockMvc.perform(post("/api/workspace/" + workspace.getId() + "/members:batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granted").value(NEW_MEMBERS - 1))
+                .andExpect(jsonPath("$.revoked").value(1))
+                .andExpect(jsonPath("$.unknownUserIds[0]").value(-1));
+
+        // Then: the statement count does not depend on the number of entries
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+        assertThat(userWorkspaceRepository.findUserIdsByWorkspaceId(workspace.getId()))
+                .hasSize(NEW_MEMBERS)
+                .doesNotContain(revoked.getId());
+        assertThat(userWorkspaceRepository.findByWorkspaceIdAndUserId(workspace.getId(), promoted.getId()))
+                .get().extracting(UserWorkspace::getRole).isEqualTo(Role.ROLE_ADMIN);
+        assertThat(membershipVersionService.currentVersion(promoted.getId())).isEqualTo(promotedVersion + 1);
+        assertThat(userRepository.findMembershipVersionById(revoked.getId())).contains(1L);
+    }
+
+    @Test
+    public void testUpdateMembers_RejectsUserListedTwice() throws Exception {
+        // Given
+        String body = "{\"grant\":[{\"userId\":" + admin.getId() + ",\"role\":\"ROLE_VISITOR\"}],\"revoke\":[" + admin.getId() + "]}";
+
+        // When & Then
+        mockMvc.perform(post("/api/workspace/" + workspace.getId() + "/members:batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+
+        assertThat(userWorkspaceRepository.findByWorkspaceIdAndUserId(workspace.getId(), admin.getId()))
+                .get().extracting(UserWorkspace::getRole).isEqualTo(Role.ROLE_ADMIN);
+    }
+
+    @Test
+    public void testUpdateMembers_RequiresAdminRole() throws Exception {
+        // Given
+        String visitorToken = jwtHelper.generateTokenWithWorkspacesAccess(admin, Map.of(workspace.getId(), Role.ROLE_VISITOR));
+
+        // When & Then
+        mockMvc.perform(post("/api/workspace/" + workspace.getId() + "/members:batch")
+                        .header("Authorization", "Bearer " + visitorToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"revoke\":[" + admin.getId() + "]}"))
+                .andExpect(status().isUnauthorized());
+
+        assertThat(userWorkspaceRepository.findUserIdsByWorkspaceId(workspace.getId())).containsExactly(admin.getId());
+    }
+
+    @Test
+    public void testUpdateMembers_ZeroPaddedIdStillFiltered() throws Exception {
+        // Given
+        String paddedId = String.format("%019d", workspace.getId());
+
+        // When & Then
+        mockMvc.perform(post("/api/workspace/" + paddedId + "/members:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"grant\":[{\"userId\":" + admin.getId() + ",\"role\":\"ROLE_VISITOR\"}]}"))
+                .andExpect(status().isUnauthorized());
+
+        assertThat(userWorkspaceRepository.findByWorkspaceIdAndUserId(workspace.getId(), admin.getId()))
+                .get().extracting(UserWorkspace::getRole).isEqualTo(Role.ROLE_ADMIN);
+    }
+
+    @Test
+    public void testUpdateMembers_IdTooLargeRejected() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/workspace/99999999999999999999/members:batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"revoke\":[" + admin.getId() + "]}"))
+                .andExpect(status().isBadRequest());
+    }
+}
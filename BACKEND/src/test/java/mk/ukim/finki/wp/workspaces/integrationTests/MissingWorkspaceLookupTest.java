@@ -0,0 +1,170 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.workspaces.config.cache.ExistingWorkspaceIds;
+import mk.ukim.finki.wp.workspaces.imports.CsvImportRowReader;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import mk.ukim.finki.wp.workspaces.service.domain.ImportService;
+import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceDeletionService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The only instance, so the filter answers alone
+@SpringBootTest(properties = "workspace.cache.single-instance=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class MissingWorkspaceLookupTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtHelper jwtHelper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private UserWorkspaceRepository userWorkspaceRepository;
+
+    @Autowired
+    private WorkspaceDeletionService workspaceDeletionService;
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private ExistingWorkspaceIds existingWorkspaceIds;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private User admin;
+    private Workspace workspace;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Other test classes may have left a rebuild behind, which would let every id through
+        existingWorkspaceIds.rebuild();
+
+        String username = "lookup" + System.nanoTime();
+        admin = userRepository.save(new User(username, username + "@example.com", "password"));
+        workspace = workspaceRepository.save(new Workspace("Existing", "Workspace that exists"));
+        userWorkspaceRepository.save(new UserWorkspace(admin, workspace, Role.ROLE_ADMIN));
+
+        // Loads the user's membership version, which later requests take from memory
+        open(workspace.getId(), token(workspace.getId())).andExpect(status().isOk());
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userWorkspaceRepository.deleteAllInBatch();
+        workspaceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testOpenWorkspace_NeverCreatedIdRejectedWithoutQuery() throws Exception {
+        // Given
+        long missingId = workspace.getId() + 1_000_000;
+        String token = token(missingId);
+        statistics.clear();
+        double rejected = lookups("rejected");
+
+        // When & Then
+        open(missingId, token).andExpect(status().isNotFound());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(lookups("rejected")).isEqualTo(rejected + 1);
+    }
+
+    @Test
+    public void testOpenWorkspace_CreatedAfterStartupIsFound() throws Exception {
+        // Given
+        Workspace created = workspaceRepository.save(new Workspace("Created", "Created after the ids were loaded"));
+        userWorkspaceRepository.save(new UserWorkspace(admin, created, Role.ROLE_ADMIN));
+
+        // When & Then
+        open(created.getId(), token(created.getId())).andExpect(status().isOk());
+    }
+
+    @Test
+    public void testOpenWorkspace_ImportedIsFound() throws Exception {
+        // Given
+        String csv = "type,key,name,username,workspace,role\n"
+                + "workspace,imported,Imported,,,\n"
+                + "membership,,," + admin.getUsername() + ",imported,ROLE_ADMIN\n";
+        importService.importRows(new CsvImportRowReader(new StringReader(csv), 1000));
+        Long importedId = workspaceRepository.findAllViews().stream()
+                .filter(view -> view.name().equals("Imported"))
+                .findFirst().orElseThrow().id();
+        // The imported membership outdated the earlier tokens
+        admin = userRepository.findById(admin.getId()).orElseThrow();
+
+        // When & Then
+        open(importedId, token(importedId)).andExpect(status().isOk());
+    }
+
+    @Test
+    public void testOpenWorkspace_DeletedIdRememberedAsMissing() throws Exception {
+        // Given
+        workspaceDeletionService.delete(workspace.getId());
+        // Deleting the membership outdated the earlier tokens
+        admin = userRepository.findById(admin.getId()).orElseThrow();
+        String token = token(workspace.getId());
+        // Reloads the principal evicted by the membership change
+        mockMvc.perform(get("/api/workspace/my-workspaces").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        statistics.clear();
+        double remembered = lookups("remembered_missing");
+
+        // When & Then
+        open(workspace.getId(), token).andExpect(status().isNotFound());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(lookups("remembered_missing")).isEqualTo(remembered + 1);
+    }
+
+    private ResultActions open(long workspaceId, String token) throws Exception {
+        return mockMvc.perform(get("/api/workspace/" + workspaceId).header("Authorization", "Bearer " + token));
+    }
+
+    private String token(long workspaceId) {
+        return jwtHelper.generateTokenWithWorkspacesAccess(admin, Map.of(workspaceId, Role.ROLE_ADMIN));
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("workspace.ids.lookups").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,182 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import mk.ukim.finki.wp.workspaces.config.datasource.ReadYourWritesTracker;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "datasource.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        // Both in-memory databases report their log position from a table the tests set
+        "datasource.replica.write-position-query=select position from wal_position",
+        "datasource.replica.replay-position-query=select position from wal_position",
+        "workspace.cache.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-routing;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtHelper jwtHelper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private UserWorkspaceRepository userWorkspaceRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private JdbcTemplate replica;
+    private long primaryPosition;
+    private Workspace workspace;
+    private String adminToken;
+    private String visitorToken;
+
+    @BeforeEach
+    public void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        User admin = userRepository.save(new User("replicaadmin" + suffix, "admin@example.com", "password"));
+        User visitor = userRepository.save(new User("replicavisitor" + suffix, "visitor@example.com", "password"));
+        workspace = workspaceRepository.save(new Workspace("Primary name", "Routed workspace"));
+        userWorkspaceRepository.saveAll(List.of(
+                new UserWorkspace(admin, workspace, Role.ROLE_ADMIN),
+                new UserWorkspace(visitor, workspace, Role.ROLE_VISITOR)
+        ));
+        adminToken = jwtHelper.generateTokenWithWorkspacesAccess(admin, Map.of(workspace.getId(), Role.ROLE_ADMIN));
+        visitorToken = jwtHelper.generateTokenWithWorkspacesAccess(visitor, Map.of(workspace.getId(), Role.ROLE_VISITOR));
+
+        // Copy the primary into the replica, then let the replica lag behind on the workspace name
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "emt", "emt"));
+        replica.execute("drop all objects");
+        new JdbcTemplate(primaryDataSource).queryForList("script", String.class).forEach(replica::execute);
+        replica.update("update workspace set name = 'Replica name' where id = ?", workspace.getId());
+
+        // Positions only grow, also across tests, as the replica's highest reported position is remembered
+        primaryPosition = System.nanoTime();
+        setPosition(new JdbcTemplate(primaryDataSource), primaryPosition);
+        setPosition(replica, primaryPosition - 1);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userWorkspaceRepository.deleteAllInBatch();
+        workspaceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testReadOnlyQueries_UseReplica() {
+        // When
+        List<WorkspaceView> views = workspaceRepository.findAllViews();
+
+        // Then
+        assertThat(views).extracting(WorkspaceView::name).containsExactly("Replica name");
+    }
+
+    @Test
+    public void testCatalog_ReadFromPrimary() throws Exception {
+        // When & Then: the catalog is cached once read, so it must not be the replica's
+        mockMvc.perform(get("/api/workspace").header("Authorization", "Bearer " + visitorToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Primary name"));
+    }
+
+    @Test
+    public void testWrites_UsePrimary() {
+        // When
+        workspaceRepository.save(new Workspace("Written", "Only on the primary"));
+
+        // Then
+        assertThat(new JdbcTemplate(primaryDataSource).queryForObject("select count(*) from workspace", Integer.class)).isEqualTo(2);
+        assertThat(replica.queryForObject("select count(*) from workspace", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    public void testEditWorkspace_WriterReadsOwnWriteFromPrimary() throws Exception {
+        // Given
+        openWorkspace(visitorToken, null).andExpect(jsonPath("$.name").value("Replica name"));
+
+        // When
+        String position = mockMvc.perform(post("/api/workspace/edit/" + workspace.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Edited name\",\"description\":\"Edited\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(ReadYourWritesTracker.HEADER);
+
+        // Then: a request bringing the write position sees the change, requests without it keep reading the replica
+        assertThat(position).isEqualTo(String.valueOf(primaryPosition));
+        openWorkspace(adminToken, position).andExpect(jsonPath("$.name").value("Edited name"));
+        openWorkspace(visitorToken, null).andExpect(jsonPath("$.name").value("Replica name"));
+    }
+
+    @Test
+    public void testReads_UseReplicaOnceItReplayedTheWritePosition() throws Exception {
+        // Given
+        String position = String.valueOf(primaryPosition);
+        openWorkspace(adminToken, position).andExpect(jsonPath("$.name").value("Primary name"));
+
+        // When
+        setPosition(replica, primaryPosition);
+
+        // Then
+        openWorkspace(adminToken, position).andExpect(jsonPath("$.name").value("Replica name"));
+    }
+
+    private static void setPosition(JdbcTemplate jdbcTemplate, long position) {
+        jdbcTemplate.execute("create table if not exists wal_position (position bigint)");
+        jdbcTemplate.update("delete from wal_position");
+        jdbcTemplate.update("insert into wal_position values (?)", position);
+    }
+
+    private ResultActions openWorkspace(String token, String writePosition) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/workspace/" + workspace.getId())
+                .header("Authorization", "Bearer " + token);
+        if (writePosition != null) {
+            request.header(ReadYourWritesTracker.HEADER, writePosition);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,164 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private UserWorkspaceRepository userWorkspaceRepository;
+
+    @Autowired
+    private WorkspaceService workspaceService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private User user;
+    private Workspace workspace;
+    private UserWorkspace membership;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        String username = "cached" + System.nanoTime();
+        user = userRepository.save(new User(username, username + "@example.com", "password"));
+        workspace = workspaceRepository.save(new Workspace("Cached", "Cached workspace"));
+        membership = userWorkspaceRepository.save(new UserWorkspace(user, workspace, Role.ROLE_ADMIN));
+
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userWorkspaceRepository.deleteAll();
+        workspaceRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testWorkspace_SecondReadServedFromCache() {
+        // When
+        workspaceRepository.findById(workspace.getId());
+        workspaceRepository.findById(workspace.getId());
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFindByUsername_ResolvedThroughNaturalIdCache() {
+        // Given
+        userRepository.findByUsername(user.getUsername());
+        statistics.clear();
+
+        // When
+        User found = userRepository.findByUsername(user.getUsername()).orElseThrow();
+
+        // Then
+        assertThat(found.getId()).isEqualTo(user.getId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testMembershipLookup_ServedFromQueryCache() {
+        // Given
+        userWorkspaceRepository.findByWorkspaceIdAndUserId(workspace.getId(), user.getId());
+        statistics.clear();
+
+        // When
+        userWorkspaceRepository.findByWorkspaceIdAndUserId(workspace.getId(), user.getId());
+
+        // Then: the result ids come from the query cache and the rows from the entity regions
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void testMembershipLookup_InvalidatedByDelete() {
+        // Given
+        userWorkspaceRepository.findByWorkspaceIdAndUserId(workspace.getId(), user.getId());
+
+        // When
+        userWorkspaceRepository.delete(membership);
+
+        // Then
+        assertThat(userWorkspaceRepository.findByWorkspaceIdAndUserId(workspace.getId(), user.getId())).isEmpty();
+    }
+
+    @Test
+    public void testEditWorkspace_InvalidatesCachedEntity() {
+        // Given
+        workspaceRepository.findById(workspace.getId());
+
+        // When
+        workspaceService.editWorkspace(new WorkspaceView(workspace.getId(), workspace.getName(), workspace.getDescription(), workspace.getVersion()),
+                new Workspace("Renamed", "Renamed description"), null);
+
+        // Then
+        assertThat(workspaceRepository.findById(workspace.getId()))
+                .hasValueSatisfying(w -> assertThat(w.getName()).isEqualTo("Renamed"));
+    }
+
+    @Test
+    public void testDeleteWorkspace_EvictsCachedEntity() {
+        // Given
+        workspaceRepository.findById(workspace.getId());
+        userWorkspaceRepository.delete(membership);
+
+        // When
+        workspaceRepository.deleteById(workspace.getId());
+
+        // Then
+        assertThat(workspaceRepository.findById(workspace.getId())).isEmpty();
+    }
+
+    @Test
+    public void testCacheRequestsExposedAsMetrics() {
+        // When
+        workspaceRepository.findById(workspace.getId());
+        workspaceRepository.findById(workspace.getId());
+
+        // Then
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", "workspace", "result", "hit")
+                .functionCounter())
+                .isNotNull()
+                .satisfies(counter -> assertThat(counter.count()).isGreaterThanOrEqualTo(1));
+    }
+}
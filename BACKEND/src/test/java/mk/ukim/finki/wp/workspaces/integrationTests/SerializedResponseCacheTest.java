@@ -0,0 +1,167 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import mk.ukim.finki.wp.workspaces.service.application.WorkspaceApplicationService;
+import mk.ukim.finki.wp.workspaces.web.SerializedResponseCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "web.response-cache.gzip-min-size=256B")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class SerializedResponseCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtHelper jwtHelper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private UserWorkspaceRepository userWorkspaceRepository;
+
+    @Autowired
+    private WorkspaceApplicationService workspaceApplicationService;
+
+    @Autowired
+    private SerializedResponseCache responseCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<Workspace> workspaces;
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        String username = "serialized" + System.nanoTime();
+        User admin = userRepository.save(new User(username, username + "@example.com", "password"));
+        workspaces = workspaceRepository.saveAll(IntStream.range(0, 10)
+                .mapToObj(i -> new Workspace("Workspace " + i, "A description long enough to be worth compressing"))
+                .toList());
+        workspaces.forEach(workspace -> userWorkspaceRepository.save(new UserWorkspace(admin, workspace, Role.ROLE_ADMIN)));
+        token = jwtHelper.generateTokenWithWorkspacesAccess(admin, Map.of(workspaces.get(0).getId(), Role.ROLE_ADMIN));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userWorkspaceRepository.deleteAllInBatch();
+        workspaceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testFindAll_GzipVariantMatchesIdentityBody() throws Exception {
+        // When
+        MvcResult identity = mockMvc.perform(get("/api/workspace"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(jsonPath("$.length()").value(10))
+                .andReturn();
+        MvcResult gzip = mockMvc.perform(get("/api/workspace")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        // Then
+        byte[] body = identity.getResponse().getContentAsByteArray();
+        assertThat(gunzip(gzip.getResponse().getContentAsByteArray())).isEqualTo(body);
+        assertThat(gzip.getResponse().getContentAsByteArray().length).isLessThan(body.length);
+        assertThat(objectMapper.writeValueAsBytes(workspaceApplicationService.findAll())).isEqualTo(body);
+    }
+
+    @Test
+    public void testFindAll_UnchangedCatalogIsNotSerializedAgain() throws Exception {
+        // Given
+        byte[] body = mockMvc.perform(get("/api/workspace"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // When
+        SerializedResponseCache.SerializedBody cached = responseCache.catalog(workspaceApplicationService.findCatalogVersion(), () -> {
+            throw new AssertionError("The catalog was serialized again");
+        });
+
+        // Then
+        assertThat(cached.identity()).isEqualTo(body);
+    }
+
+    @Test
+    public void testFindAll_EditedWorkspaceIsServedFresh() throws Exception {
+        // Given
+        mockMvc.perform(get("/api/workspace")).andExpect(jsonPath("$[0].name").value("Workspace 0"));
+
+        // When
+        mockMvc.perform(post("/api/workspace/edit/" + workspaces.get(0).getId())
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\",\"description\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+
+        // Then
+        mockMvc.perform(get("/api/workspace")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$[0].name").value("Renamed"));
+    }
+
+    @Test
+    public void testMyWorkspaces_ServedFromCachedBytes() throws Exception {
+        // When
+        MvcResult gzip = mockMvc.perform(get("/api/workspace/my-workspaces")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        // Then
+        List<?> rows = objectMapper.readValue(gunzip(gzip.getResponse().getContentAsByteArray()), List.class);
+        assertThat(rows).hasSize(10);
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        }
+    }
+}
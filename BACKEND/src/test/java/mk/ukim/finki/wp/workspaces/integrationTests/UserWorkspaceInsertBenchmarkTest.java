@@ -0,0 +1,108 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput for memberships, one round trip per row against JDBC batches.
+ * Run with {@code mvn test -Dtest=UserWorkspaceInsertBenchmarkTest -Dbenchmark.rows=1000000}.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@EnabledIfSystemProperty(named = "benchmark.rows", matches = "\\d+")
+public class UserWorkspaceInsertBenchmarkTest {
+
+    private static final int WORKSPACES = 1_000;
+    private static final int FLUSH_INTERVAL = 1_000;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void compareRowAtATimeWithBatchedInserts() {
+        int rows = Integer.getInteger("benchmark.rows");
+        List<Long> workspaceIds = createWorkspaces();
+
+        long unbatched = insertMemberships("unbatched", rows, workspaceIds, 1);
+        long batched = insertMemberships("batched", rows, workspaceIds, 50);
+
+        System.out.printf("UserWorkspace inserts, %d rows: unbatched %d rows/s, batched %d rows/s (%.1fx)%n",
+                rows, unbatched, batched, (double) batched / unbatched);
+    }
+
+    private long insertMemberships(String prefix, int rows, List<Long> workspaceIds, int batchSize) {
+        int users = (rows + WORKSPACES - 1) / WORKSPACES;
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            entityManager.getTransaction().begin();
+            List<User> owners = new ArrayList<>(users);
+            for (int i = 0; i < users; i++) {
+                User user = new User(prefix + i, prefix + i + "@example.com", "password");
+                entityManager.persist(user);
+                owners.add(user);
+            }
+            entityManager.flush();
+            List<Long> ownerIds = owners.stream().map(User::getId).toList();
+            entityManager.clear();
+
+            long started = System.nanoTime();
+            for (int i = 0; i < rows; i++) {
+                User user = entityManager.getReference(User.class, ownerIds.get(i / WORKSPACES));
+                Workspace workspace = entityManager.getReference(Workspace.class, workspaceIds.get(i % WORKSPACES));
+                entityManager.persist(new UserWorkspace(user, workspace, Role.ROLE_VISITOR));
+                if ((i + 1) % FLUSH_INTERVAL == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.getTransaction().commit();
+            long elapsed = System.nanoTime() - started;
+
+            Long inserted = entityManager.createQuery(
+                            "select count(uw) from UserWorkspace uw where uw.user.username like :prefix", Long.class)
+                    .setParameter("prefix", prefix + "%")
+                    .getSingleResult();
+            assertThat(inserted).isEqualTo(rows);
+            return rows * 1_000_000_000L / Math.max(elapsed, 1);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private List<Long> createWorkspaces() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            List<Workspace> workspaces = new ArrayList<>(WORKSPACES);
+            for (int i = 0; i < WORKSPACES; i++) {
+                Workspace workspace = new Workspace("Benchmark " + i, "Benchmark workspace " + i);
+                entityManager.persist(workspace);
+                workspaces.add(workspace);
+            }
+            entityManager.getTransaction().commit();
+            return workspaces.stream().map(Workspace::getId).toList();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import mk.ukim.finki.wp.workspaces.WorkspacesApplication;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and p99 latency of opening a workspace over HTTP, with requests handled on Tomcat's platform thread
+ * pool against the {@code virtual} profile. Every client sends its next request as soon as the previous one returns.
+ * The workspace cache is off, so every request waits on the database. While the virtual threads run, JFR reports
+ * every virtual thread that blocked while pinned to its carrier.
+ * Run with {@code mvn test -Dtest=VirtualThreadsBenchmarkTest -Dbenchmark.clients=100,1000,10000}; each
+ * measurement lasts {@code -Dbenchmark.seconds} seconds, 10 by default, after a warm-up of a fifth of that.
+ * Ten thousand clients need as many open files for each side of the connections.
+ */
+@EnabledIfSystemProperty(named = "benchmark.clients", matches = "\\d+(,\\d+)*")
+public class VirtualThreadsBenchmarkTest {
+
+    @Test
+    public void comparePlatformWithVirtualThreads() throws Exception {
+        int[] clients = Arrays.stream(System.getProperty("benchmark.clients").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration duration = Duration.ofSeconds(Long.getLong("benchmark.seconds", 10));
+
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext node = startNode(virtual)) {
+                Target target = seed(node);
+                for (int count : clients) {
+                    run(target, count, duration.dividedBy(5), false);
+                    System.out.printf("%s threads, %d clients: %s%n", virtual ? "Virtual" : "Platform", count,
+                            run(target, count, duration, virtual));
+                }
+            }
+        }
+    }
+
+    private String run(Target target, int clients, Duration duration, boolean tracePinning) throws Exception {
+        AtomicLong failures = new AtomicLong();
+        List<LongStream.Builder> latencies = new ArrayList<>(clients);
+        AtomicLong pinned = new AtomicLong();
+        Set<String> pinnedAt = ConcurrentHashMap.newKeySet();
+        CountDownLatch finished = new CountDownLatch(clients);
+
+        try (RecordingStream recording = new RecordingStream();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).build()) {
+            if (tracePinning) {
+                recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+                recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                    pinned.incrementAndGet();
+                    event.getStackTrace().getFrames().stream()
+                            .map(RecordedFrame::getMethod)
+                            .filter(method -> method.getType().getName().startsWith("mk.ukim"))
+                            .findFirst()
+                            .ifPresent(method -> pinnedAt.add(method.getType().getName() + "." + method.getName()));
+                });
+                recording.startAsync();
+            }
+
+            long started = System.nanoTime();
+            long deadline = started + duration.toNanos();
+            for (int i = 0; i < clients; i++) {
+                LongStream.Builder clientLatencies = LongStream.builder();
+                latencies.add(clientLatencies);
+                executor.execute(() -> {
+                    try {
+                        while (System.nanoTime() < deadline) {
+                            long sent = System.nanoTime();
+                            if (send(client, target) == 200) {
+                                clientLatencies.add(System.nanoTime() - sent);
+                            } else {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    } finally {
+                        finished.countDown();
+                    }
+                });
+            }
+            finished.await();
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            long[] sorted = latencies.stream().flatMapToLong(LongStream.Builder::build).sorted().toArray();
+            assertThat(sorted).isNotEmpty();
+            String result = String.format("%.0f requests/s, p99 %.1f ms, %d failed",
+                    sorted.length / seconds, sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1e6, failures.get());
+            return tracePinning ? result + String.format(", %d pinned %s", pinned.get(), pinnedAt) : result;
+        }
+    }
+
+    private static int send(HttpClient client, Target target) {
+        HttpRequest request = HttpRequest.newBuilder(target.uri())
+                .header("Authorization", "Bearer " + target.token())
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException exception) {
+            return -1;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static Target seed(ConfigurableApplicationContext node) {
+        String username = "benchmark" + System.nanoTime();
+        User user = node.getBean(UserRepository.class).save(new User(username, username + "@example.com", "password"));
+        Workspace workspace = node.getBean(WorkspaceRepository.class).save(new Workspace("Benchmark", "Opened by every client"));
+        node.getBean(UserWorkspaceRepository.class).save(new UserWorkspace(user, workspace, Role.ROLE_ADMIN));
+
+        String token = node.getBean(JwtHelper.class)
+                .generateTokenWithWorkspacesAccess(user, Map.of(workspace.getId(), Role.ROLE_ADMIN));
+        String port = node.getEnvironment().getProperty("local.server.port");
+        return new Target(URI.create("http://localhost:" + port + "/api/workspace/" + workspace.getId()), token);
+    }
+
+    private static ConfigurableApplicationContext startNode(boolean virtual) {
+        return new SpringApplicationBuilder(WorkspacesApplication.class).run(
+                "--spring.profiles.active=h2" + (virtual ? ",virtual" : ""),
+                "--spring.datasource.url=jdbc:h2:mem:virtual-threads-" + virtual + ";DB_CLOSE_DELAY=-1",
+                "--server.port=0",
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=1000",
+                "--workspace.cache.enabled=false",
+                // Logs the statistics of every session otherwise, which costs more than the requests
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+        );
+    }
+
+    private record Target(URI uri, String token) {
+    }
+}
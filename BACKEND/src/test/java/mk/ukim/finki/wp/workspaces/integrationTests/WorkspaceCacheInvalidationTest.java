@@ -0,0 +1,102 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import mk.ukim.finki.wp.workspaces.WorkspacesApplication;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceDeletionService;
+import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application instances in one JVM, sharing one database but each with its own workspace catalog cache.
+ */
+public class WorkspaceCacheInvalidationTest {
+
+    private static final String DATABASE_URL = "jdbc:h2:mem:workspace-cache-nodes;DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+
+    private Workspace workspace;
+
+    @BeforeAll
+    public static void startNodes() {
+        first = startNode();
+        second = startNode();
+    }
+
+    @AfterAll
+    public static void stopNodes() {
+        second.close();
+        first.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        workspace = first.getBean(WorkspaceRepository.class).save(new Workspace("Shared", "Cached on both nodes"));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        first.getBean(WorkspaceRepository.class).deleteAllInBatch();
+    }
+
+    @Test
+    public void testEditOnOneNode_InvalidatesTheOther() {
+        // Given: both nodes cache the workspace, and a write behind their back stays unseen
+        WorkspaceView view = service(first).findViewById(workspace.getId()).orElseThrow();
+        service(second).findViewById(workspace.getId()).orElseThrow();
+        assertThat(service(first).findAllViews()).extracting(WorkspaceView::name).containsExactly("Shared");
+        first.getBean(JdbcTemplate.class).update("update workspace set description = 'Unseen' where id = ?", workspace.getId());
+        assertThat(service(first).findViewById(workspace.getId()))
+                .hasValueSatisfying(cached -> assertThat(cached.description()).isEqualTo("Cached on both nodes"));
+
+        // When
+        service(second).editWorkspace(view, new Workspace("Renamed", "Renamed on the second node"), null);
+
+        // Then
+        assertThat(service(first).findViewById(workspace.getId()))
+                .hasValueSatisfying(fresh -> {
+                    assertThat(fresh.name()).isEqualTo("Renamed");
+                    assertThat(fresh.version()).isEqualTo(view.version() + 1);
+                });
+        assertThat(service(first).findAllViews()).extracting(WorkspaceView::name).containsExactly("Renamed");
+    }
+
+    @Test
+    public void testDeleteOnOneNode_InvalidatesTheOther() {
+        // Given
+        assertThat(service(first).findViewById(workspace.getId())).isPresent();
+        assertThat(service(first).findAllViews()).hasSize(1);
+
+        // When
+        second.getBean(WorkspaceDeletionService.class).delete(workspace.getId());
+
+        // Then
+        assertThat(service(first).findViewById(workspace.getId())).isEmpty();
+        assertThat(service(first).findAllViews()).isEmpty();
+    }
+
+    private static WorkspaceService service(ConfigurableApplicationContext node) {
+        return node.getBean(WorkspaceService.class);
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(WorkspacesApplication.class).run(
+                "--spring.profiles.active=h2",
+                "--spring.datasource.url=" + DATABASE_URL,
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--server.port=0"
+        );
+    }
+}
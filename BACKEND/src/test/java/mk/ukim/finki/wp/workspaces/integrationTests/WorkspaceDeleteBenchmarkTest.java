@@ -0,0 +1,98 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceDeletionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time to delete a workspace by cascading through the membership entities against the chunked set-based purge.
+ * Run with {@code mvn test -Dtest=WorkspaceDeleteBenchmarkTest -Dbenchmark.members=1000,100000,1000000}.
+ * The cascade is only measured up to {@link #MAX_CASCADED_MEMBERS} members, beyond that it runs for minutes.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@EnabledIfSystemProperty(named = "benchmark.members", matches = "\\d+(,\\d+)*")
+public class WorkspaceDeleteBenchmarkTest {
+
+    private static final int MAX_CASCADED_MEMBERS = 100_000;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private WorkspaceDeletionService workspaceDeletionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void compareCascadeWithSetBasedPurge() {
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.members").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        for (int members : sizes) {
+            String cascade = "skipped";
+            if (members <= MAX_CASCADED_MEMBERS) {
+                long workspaceId = createWorkspace("cascade" + members, members);
+                cascade = time(() -> deleteByCascade(workspaceId)) + " ms";
+                assertDeleted(workspaceId);
+            }
+
+            long workspaceId = createWorkspace("purge" + members, members);
+            long purge = time(() -> workspaceDeletionService.purge(workspaceId));
+            assertDeleted(workspaceId);
+
+            System.out.printf("Workspace delete, %d members: cascade %s, set-based purge %d ms%n", members, cascade, purge);
+        }
+    }
+
+    private void deleteByCascade(long workspaceId) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.remove(entityManager.find(Workspace.class, workspaceId));
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private long createWorkspace(String prefix, int members) {
+        Long workspaceId = jdbcTemplate.queryForObject("select next value for workspace_seq", Long.class);
+        jdbcTemplate.update("insert into workspace (id, name, description, version) values (?, ?, ?, 0)",
+                workspaceId, prefix, "Benchmark workspace");
+        jdbcTemplate.update("insert into workspace_user (id, username, email, password, membership_version) " +
+                        "select next value for workspace_user_seq, concat(?, '-', x), 'benchmark@example.com', 'password', 0 " +
+                        "from system_range(1, ?)",
+                prefix, members);
+        jdbcTemplate.update("insert into user_workspace (id, user_id, workspace_id, role) " +
+                        "select next value for user_workspace_seq, u.id, ?, 'ROLE_VISITOR' from workspace_user u where u.username like ?",
+                workspaceId, prefix + "-%");
+        return workspaceId;
+    }
+
+    private void assertDeleted(long workspaceId) {
+        assertThat(jdbcTemplate.queryForObject("select count(*) from user_workspace where workspace_id = ?", Long.class, workspaceId))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from workspace where id = ?", Long.class, workspaceId))
+                .isZero();
+    }
+
+    private static long time(Runnable runnable) {
+        long started = System.nanoTime();
+        runnable.run();
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
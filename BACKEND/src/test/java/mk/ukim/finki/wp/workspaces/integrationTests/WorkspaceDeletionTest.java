@@ -0,0 +1,195 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import mk.ukim.finki.wp.workspaces.service.domain.MembershipVersionService;
+import mk.ukim.finki.wp.workspaces.service.domain.UserService;
+import mk.ukim.finki.wp.workspaces.service.domain.impl.WorkspaceDeletionServiceImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "workspace.delete.chunk-size=4",
+        "workspace.delete.async-threshold=10"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class WorkspaceDeletionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtHelper jwtHelper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private UserWorkspaceRepository userWorkspaceRepository;
+
+    @Autowired
+    private MembershipVersionService membershipVersionService;
+
+    @Autowired
+    private WorkspaceDeletionServiceImpl workspaceDeletionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User admin;
+    private Workspace workspace;
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        String username = "deleteadmin" + System.nanoTime();
+        admin = userRepository.save(new User(username, username + "@example.com", "password"));
+        workspace = workspaceRepository.save(new Workspace("Doomed", "Workspace to delete"));
+        userWorkspaceRepository.save(new UserWorkspace(admin, workspace, Role.ROLE_ADMIN));
+        token = jwtHelper.generateTokenWithWorkspacesAccess(admin, Map.of(workspace.getId(), Role.ROLE_ADMIN));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userWorkspaceRepository.deleteAllInBatch();
+        workspaceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testDeleteWorkspace_RemovesMembershipsWithSetBasedStatements() throws Exception {
+        // Given
+        List<User> members = addMembers(5);
+        long memberVersion = membershipVersionService.currentVersion(members.get(0).getId());
+        statistics.clear();
+
+        // When
+        mockMvc.perform(delete("/api/workspace/delete/" + workspace.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Workspace deleted successfully"));
+
+        // Then: no membership entity is loaded and the statement count does not depend on the member count
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+        assertThat(workspaceRepository.existsById(workspace.getId())).isFalse();
+        assertThat(userWorkspaceRepository.countByWorkspaceId(workspace.getId())).isZero();
+        assertThat(membershipVersionService.currentVersion(members.get(0).getId())).isEqualTo(memberVersion + 1);
+        assertThat(userRepository.count()).isEqualTo(members.size() + 1);
+    }
+
+    @Test
+    public void testDeleteWorkspace_PurgesLargeWorkspaceInChunksInTheBackground() throws Exception {
+        // Given
+        List<User> members = addMembers(13);
+
+        // When
+        mockMvc.perform(delete("/api/workspace/delete/" + workspace.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isAccepted());
+
+        // Then
+        awaitDeleted();
+        assertThat(userWorkspaceRepository.countByWorkspaceId(workspace.getId())).isZero();
+        assertThat(userRepository.findMembershipVersionById(members.get(members.size() - 1).getId())).contains(1L);
+    }
+
+    @Test
+    public void testDeleteWorkspace_AdminResumesInterruptedPurge() throws Exception {
+        // Given: a purge that stopped after its first chunk, which never includes the admin
+        addMembers(3);
+        workspaceRepository.markPendingDelete(workspace.getId());
+
+        // When
+        mockMvc.perform(delete("/api/workspace/delete/" + workspace.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isAccepted());
+
+        // Then
+        awaitDeleted();
+        assertThat(userWorkspaceRepository.countByWorkspaceId(workspace.getId())).isZero();
+    }
+
+    @Test
+    public void testResumePendingPurges_FinishesPurgeLeftByRestart() throws Exception {
+        // Given
+        addMembers(13);
+        workspaceRepository.markPendingDelete(workspace.getId());
+
+        // When
+        workspaceDeletionService.resumePendingPurges();
+
+        // Then
+        awaitDeleted();
+        assertThat(userWorkspaceRepository.countByWorkspaceId(workspace.getId())).isZero();
+    }
+
+    @Test
+    public void testDeleteUser_RemovesMembershipsAndEvictsCachedUser() {
+        // Given
+        User member = addMembers(1).get(0);
+        assertThat(userRepository.findByUsername(member.getUsername())).isPresent();
+
+        // When
+        boolean deleted = userService.deleteUserByUsername(member.getUsername());
+
+        // Then
+        assertThat(deleted).isTrue();
+        assertThat(userRepository.findByUsername(member.getUsername())).isEmpty();
+        assertThat(userWorkspaceRepository.findUserIdsByWorkspaceId(workspace.getId())).containsExactly(admin.getId());
+        assertThat(userService.deleteUserByUsername(member.getUsername())).isFalse();
+    }
+
+    private void awaitDeleted() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (workspaceRepository.existsById(workspace.getId()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(workspaceRepository.existsById(workspace.getId())).isFalse();
+    }
+
+    private List<User> addMembers(int count) {
+        List<User> members = userRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> new User("doomed" + i + "-" + System.nanoTime(), "doomed" + i + "@example.com", "password"))
+                .toList());
+        List<UserWorkspace> memberships = new ArrayList<>();
+        members.forEach(member -> memberships.add(new UserWorkspace(member, workspace, Role.ROLE_VISITOR)));
+        userWorkspaceRepository.saveAll(memberships);
+        return members;
+    }
+}
@@ -0,0 +1,204 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.repository.ChangeCounterRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class WorkspaceETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtHelper jwtHelper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private UserWorkspaceRepository userWorkspaceRepository;
+
+    @Autowired
+    private ChangeCounterRepository changeCounterRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User admin;
+    private Workspace workspace;
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        String username = "etagadmin" + System.nanoTime();
+        admin = userRepository.save(new User(username, username + "@example.com", "password"));
+        workspace = workspaceRepository.save(new Workspace("Tagged", "Workspace with an ETag"));
+        userWorkspaceRepository.save(new UserWorkspace(admin, workspace, Role.ROLE_ADMIN));
+        token = jwtHelper.generateTokenWithWorkspacesAccess(admin, Map.of(workspace.getId(), Role.ROLE_ADMIN));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userWorkspaceRepository.deleteAllInBatch();
+        workspaceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testOpenWorkspace_AnswersNotModifiedWithoutLoadingEntities() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/api/workspace/" + workspace.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isEqualTo("\"" + workspace.getId() + "-0\"");
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(get("/api/workspace/" + workspace.getId())
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    public void testEditWorkspace_WithCurrentIfMatchReturnsNewETag() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/workspace/edit/" + workspace.getId())
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_MATCH, "\"" + workspace.getId() + "-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\",\"description\":\"Renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + workspace.getId() + "-1\""));
+
+        mockMvc.perform(get("/api/workspace/" + workspace.getId())
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + workspace.getId() + "-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + workspace.getId() + "-1\""));
+    }
+
+    @Test
+    public void testEditWorkspace_WithStaleIfMatchFails() throws Exception {
+        // Given
+        workspaceRepository.updateNameAndDescription(workspace.getId(), "Changed elsewhere", "Concurrent edit");
+
+        // When & Then
+        mockMvc.perform(post("/api/workspace/edit/" + workspace.getId())
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_MATCH, "\"" + workspace.getId() + "-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Lost update\",\"description\":\"Lost update\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(workspaceRepository.findViewById(workspace.getId()))
+                .hasValueSatisfying(view -> assertThat(view.name()).isEqualTo("Changed elsewhere"));
+    }
+
+    @Test
+    public void testMyWorkspaces_ETagChangesWhenAWorkspaceIsEdited() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/api/workspace/my-workspaces")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/workspace/my-workspaces")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // When
+        mockMvc.perform(post("/api/workspace/edit/" + workspace.getId())
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\",\"description\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+
+        // Then
+        mockMvc.perform(get("/api/workspace/my-workspaces")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    public void testMyWorkspaces_ETagFollowsChangesMadeOnAnotherInstance() throws Exception {
+        // Given
+        String eTag = myWorkspacesETag();
+
+        // When: another instance bumps the shared counts, none of this instance's caches hear of it
+        changeCounterRepository.increment("workspaces");
+        String afterWorkspaceChange = myWorkspacesETag();
+        userRepository.incrementMembershipVersions(List.of(admin.getId()));
+        String afterMembershipChange = myWorkspacesETag();
+
+        // Then
+        assertThat(afterWorkspaceChange).isNotEqualTo(eTag);
+        assertThat(afterMembershipChange).isNotIn(eTag, afterWorkspaceChange);
+    }
+
+    @Test
+    public void testMyWorkspaces_AnswersNotModifiedFromVersionsAlone() throws Exception {
+        // Given
+        String eTag = myWorkspacesETag();
+        statistics.clear();
+
+        // When & Then: only the membership version and the change count are read
+        mockMvc.perform(get("/api/workspace/my-workspaces")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private String myWorkspacesETag() throws Exception {
+        return mockMvc.perform(get("/api/workspace/my-workspaces")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,101 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.workspaces.config.cache.InvalidationBus;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Thundering herd on one cold workspace: every round drops the cached workspace and releases all threads at once.
+ * Compares every thread querying the database itself against the lookups coalesced by the catalog cache.
+ * Run with {@code mvn test -Dtest=WorkspaceLookupHerdBenchmarkTest -Dbenchmark.threads=1,10,100,1000}.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@EnabledIfSystemProperty(named = "benchmark.threads", matches = "\\d+(,\\d+)*")
+public class WorkspaceLookupHerdBenchmarkTest {
+
+    private static final int ROUNDS = 200;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private WorkspaceService workspaceService;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void compareDirectLookupsWithSingleFlight() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long workspaceId = workspaceRepository.save(new Workspace("Popular", "Opened by the whole class at once")).getId();
+        int[] herds = Arrays.stream(System.getProperty("benchmark.threads").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        try {
+            for (int threads : herds) {
+                String direct = run(threads, statistics, id -> workspaceRepository.findViewById(id).orElseThrow(), workspaceId);
+                String coalesced = run(threads, statistics, id -> workspaceService.findViewById(id).orElseThrow(), workspaceId);
+                System.out.printf("Herd of %d: direct %s, single-flight %s%n", threads, direct, coalesced);
+            }
+        } finally {
+            workspaceRepository.deleteById(workspaceId);
+        }
+    }
+
+    private String run(int threads, Statistics statistics, LongConsumer lookup, long workspaceId) throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(threads,
+                () -> invalidationBus.publish(WorkspaceChangedEvent.catalogChanged()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        statistics.clear();
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        barrier.await();
+                        lookup.accept(workspaceId);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long queries = statistics.getPrepareStatementCount();
+        assertThat(queries).isPositive();
+        return String.format("%d queries in %.2f s (%.0f queries/s, %.1f per round, %.0f lookups/s)",
+                queries, seconds, queries / seconds, (double) queries / ROUNDS, (double) threads * ROUNDS / seconds);
+    }
+}
@@ -0,0 +1,194 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Serves an unchanged listing without a query otherwise, these tests count the queries behind it
+        "web.response-cache.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class WorkspaceQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtHelper jwtHelper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private UserWorkspaceRepository userWorkspaceRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private WorkspaceService workspaceService;
+
+    private Statistics statistics;
+    private User user;
+    private Workspace workspace;
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // a fresh username per test keeps cached principals from earlier tests out of the way
+        String username = "querycount" + System.nanoTime();
+        user = userRepository.save(new User(username, username + "@example.com", "password"));
+        workspace = workspaceRepository.save(new Workspace("Query count", "Query count workspace"));
+        userWorkspaceRepository.save(new UserWorkspace(user, workspace, Role.ROLE_ADMIN));
+        token = jwtHelper.generateTokenWithWorkspacesAccess(user, Map.of(workspace.getId(), Role.ROLE_ADMIN));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        userWorkspaceRepository.deleteAll();
+        workspaceRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testOpenWorkspace_NoQueryWhenWarm() throws Exception {
+        // Given: the first request warms the principal, membership version and workspace catalog caches
+        openWorkspace();
+        statistics.clear();
+
+        // When
+        openWorkspace();
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void testEditWorkspace_LookupAndUpdateOnly() throws Exception {
+        // Given
+        openWorkspace();
+        statistics.clear();
+
+        // When
+        mockMvc.perform(post("/api/workspace/edit/" + workspace.getId())
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\",\"description\":\"Renamed description\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed"));
+
+        // Then: the lookup, the update and the shared change count
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(workspaceRepository.findById(workspace.getId()))
+                .hasValueSatisfying(w -> assertThat(w.getName()).isEqualTo("Renamed"));
+    }
+
+    @Test
+    public void testReadEndpoints_DoNotLoadEntities() throws Exception {
+        // Given
+        openWorkspace();
+        statistics.clear();
+
+        // When
+        openWorkspace();
+        mockMvc.perform(get("/api/workspace"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/workspace/my-workspaces")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].role").value("ROLE_ADMIN"));
+
+        // Then: every row was read through a projection
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    public void testMyWorkspaces_QueryCountIndependentOfMembershipCount() throws Exception {
+        // Given
+        listMyWorkspaces(1);
+        long withOneMembership = statistics.getPrepareStatementCount();
+        addMemberships(50);
+
+        // When
+        listMyWorkspaces(51);
+
+        // Then: the listing, after the membership version and the change count its ETag is built from
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(withOneMembership).isEqualTo(3);
+    }
+
+    @Test
+    public void testFindAllPerUser_FetchesWorkspacesInSameQuery() {
+        // Given
+        addMemberships(50);
+        statistics.clear();
+
+        // When
+        int touched = workspaceService.findAllPerUser(user.getId()).stream()
+                .mapToInt(userWorkspace -> userWorkspace.getWorkspace().getName().length())
+                .sum();
+
+        // Then
+        assertThat(touched).isPositive();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private void listMyWorkspaces(int expected) throws Exception {
+        // the first call also warms the principal cache, so only the second is measured
+        mockMvc.perform(get("/api/workspace/my-workspaces")
+                .header("Authorization", "Bearer " + token));
+        statistics.clear();
+        mockMvc.perform(get("/api/workspace/my-workspaces")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(expected));
+    }
+
+    private void addMemberships(int count) {
+        IntStream.rangeClosed(1, count).forEach(i -> {
+            Workspace extra = workspaceRepository.save(new Workspace("Extra " + i, "Extra workspace " + i));
+            userWorkspaceRepository.save(new UserWorkspace(user, extra, Role.ROLE_VISITOR));
+        });
+    }
+
+    private void openWorkspace() throws Exception {
+        mockMvc.perform(get("/api/workspace/" + workspace.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(workspace.getName()));
+    }
+}
@@ -0,0 +1,67 @@
+package mk.ukim.finki.wp.workspaces.integrationTests;
+
+import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class WorkspaceStreamingExportTest {
+
+    private static final int WORKSPACES = 1_250;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @BeforeEach
+    public void setUp() {
+        workspaceRepository.saveAll(IntStream.rangeClosed(1, WORKSPACES)
+                .mapToObj(i -> new Workspace("Exported " + i, "Exported workspace " + i))
+                .toList());
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        workspaceRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testStreamAll_WritesEveryWorkspaceInIdOrder() throws Exception {
+        // Given: more workspaces than one persistence context batch
+
+        // When
+        MvcResult started = mockMvc.perform(get("/api/workspace").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(WORKSPACES))
+                .andExpect(jsonPath("$[0].name").value("Exported 1"))
+                .andExpect(jsonPath("$[" + (WORKSPACES - 1) + "].name").value("Exported " + WORKSPACES));
+    }
+}
@@ -0,0 +1,91 @@
+package mk.ukim.finki.wp.workspaces.unitTests.cacheTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mk.ukim.finki.wp.workspaces.config.cache.ExistingWorkspaceIds;
+import mk.ukim.finki.wp.workspaces.config.cache.LocalInvalidationBus;
+import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExistingWorkspaceIdsTest {
+
+    private final WorkspaceRepository workspaceRepository = mock(WorkspaceRepository.class);
+    private LocalInvalidationBus bus;
+    private ExistingWorkspaceIds ids;
+
+    @AfterEach
+    void tearDown() {
+        ids.close();
+        bus.close();
+    }
+
+    @Test
+    void testFind_NeverCreatedIdRejected() {
+        // Arrange
+        ids = existingWorkspaceIds(Duration.ZERO, true);
+        when(workspaceRepository.streamAllIds()).thenReturn(Stream.of(1L));
+        ids.build();
+
+        // Act
+        Optional<Long> found = ids.find(2L, Optional::of);
+
+        // Assert
+        assertEquals(Optional.empty(), found);
+    }
+
+    @Test
+    void testFind_IdCreatedWithoutNoticeFoundAfterPeriodicRebuild() throws InterruptedException {
+        // Arrange
+        ids = existingWorkspaceIds(Duration.ofMillis(50), true);
+        // The second id was created on an instance whose notification never arrived
+        when(workspaceRepository.streamAllIds()).thenReturn(Stream.of(1L), Stream.of(1L, 2L));
+        ids.build();
+
+        // Act
+        Optional<Long> found = Optional.empty();
+        for (int attempt = 0; attempt < 100 && found.isEmpty(); attempt++) {
+            Thread.sleep(20);
+            found = ids.find(2L, Optional::of);
+        }
+
+        // Assert
+        assertEquals(Optional.of(2L), found);
+    }
+
+    @Test
+    void testFind_UnknownIdLookedUpWhileOtherInstancesAreNotHeard() {
+        // Arrange: one of several instances on the local bus, creations elsewhere never reach its filter
+        ids = existingWorkspaceIds(Duration.ZERO, false);
+        when(workspaceRepository.streamAllIds()).thenReturn(Stream.of(1L));
+        ids.build();
+        AtomicInteger lookups = new AtomicInteger();
+
+        // Act
+        Optional<Long> createdElsewhere = ids.find(2L, Optional::of);
+        Optional<Long> neverCreated = ids.find(3L, id -> {
+            lookups.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // Assert
+        assertEquals(Optional.of(2L), createdElsewhere);
+        assertEquals(Optional.empty(), neverCreated);
+        assertEquals(1, lookups.get());
+    }
+
+    private ExistingWorkspaceIds existingWorkspaceIds(Duration rebuildInterval, boolean singleInstance) {
+        bus = new LocalInvalidationBus(singleInstance);
+        return new ExistingWorkspaceIds(workspaceRepository, mock(PlatformTransactionManager.class), bus, true,
+                1000, 0.001, Duration.ofSeconds(30), 1000, rebuildInterval, new SimpleMeterRegistry());
+    }
+}
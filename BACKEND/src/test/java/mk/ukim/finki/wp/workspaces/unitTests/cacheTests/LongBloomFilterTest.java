@@ -0,0 +1,63 @@
+package mk.ukim.finki.wp.workspaces.unitTests.cacheTests;
+
+import mk.ukim.finki.wp.workspaces.config.cache.LongBloomFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongBloomFilterTest {
+
+    private static final int INSERTIONS = 10_000;
+
+    @Test
+    void testMightContain_EveryPutKeyIsFound() {
+        // Arrange
+        LongBloomFilter filter = LongBloomFilter.create(INSERTIONS, 0.01);
+
+        // Act
+        LongStream.rangeClosed(1, INSERTIONS).forEach(filter::put);
+
+        // Assert
+        assertTrue(LongStream.rangeClosed(1, INSERTIONS).allMatch(filter::mightContain));
+    }
+
+    @Test
+    void testMightContain_FalsePositivesNearTheConfiguredRate() {
+        // Arrange
+        LongBloomFilter filter = LongBloomFilter.create(INSERTIONS, 0.01);
+        LongStream.rangeClosed(1, INSERTIONS).forEach(filter::put);
+
+        // Act
+        long falsePositives = LongStream.rangeClosed(INSERTIONS + 1, INSERTIONS * 11L).filter(filter::mightContain).count();
+
+        // Assert
+        assertTrue(falsePositives < INSERTIONS * 10 * 0.02, "False positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void testIsSaturated_OnlyPastTheExpectedInsertions() {
+        // Arrange
+        LongBloomFilter filter = LongBloomFilter.create(2, 0.01);
+
+        // Act
+        filter.put(1);
+        filter.put(2);
+        boolean full = filter.isSaturated();
+        filter.put(3);
+
+        // Assert
+        assertFalse(full);
+        assertTrue(filter.isSaturated());
+    }
+
+    @Test
+    void testCreate_RejectsInvalidRate() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> LongBloomFilter.create(100, 1.5));
+    }
+}
@@ -0,0 +1,181 @@
+package mk.ukim.finki.wp.workspaces.unitTests.cacheTests;
+
+import mk.ukim.finki.wp.workspaces.config.cache.SingleFlight;
+import mk.ukim.finki.wp.workspaces.model.exceptions.LoadTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private ExecutorService executor;
+    private AtomicInteger loads;
+    private CountDownLatch release;
+    private List<Thread> waiters;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        loads = new AtomicInteger();
+        release = new CountDownLatch(1);
+        waiters = new ArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallers_ShareOneLoad() throws Exception {
+        // Arrange
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        Future<String> leader = executor.submit(() -> singleFlight.load(1L, blockingLoad(() -> "value")));
+        awaitLoads(1);
+        List<Future<String>> followers = startWaiters(10, () -> singleFlight.load(1L, () -> "not shared"));
+
+        // Act
+        release.countDown();
+
+        // Assert
+        assertEquals("value", leader.get());
+        for (Future<String> follower : followers) {
+            assertEquals("value", follower.get());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testFailedLoad_WaitersTryOnceMoreOnAFreshLoad() throws Exception {
+        // Arrange
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        Future<String> leader = executor.submit(() -> singleFlight.load(1L, blockingLoad(() -> {
+            throw new IllegalStateException("leader's connection broke");
+        })));
+        awaitLoads(1);
+        List<Future<String>> followers = startWaiters(5, () -> singleFlight.load(1L, () -> {
+            loads.incrementAndGet();
+            // long enough for the other waiters to join this load
+            sleep(Duration.ofMillis(200));
+            return "retried";
+        }));
+
+        // Act
+        release.countDown();
+
+        // Assert: only the leader sees its failure
+        ExecutionException failure = assertThrows(ExecutionException.class, leader::get);
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        for (Future<String> follower : followers) {
+            assertEquals("retried", follower.get());
+        }
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testFailedLoad_IsNotRemembered() {
+        // Arrange
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        assertThrows(IllegalStateException.class, () -> singleFlight.load(1L, () -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+
+        // Act
+        String value = singleFlight.load(1L, () -> "recovered");
+
+        // Assert
+        assertEquals("recovered", value);
+    }
+
+    @Test
+    void testSlowLoad_WaitersTimeOut() throws Exception {
+        // Arrange
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        Future<String> leader = executor.submit(() -> singleFlight.load(1L, blockingLoad(() -> "slow")));
+        awaitLoads(1);
+
+        // Act & Assert
+        assertThrows(LoadTimeoutException.class, () -> singleFlight.load(1L, () -> "not shared"));
+        release.countDown();
+        assertEquals("slow", leader.get());
+    }
+
+    @Test
+    void testDifferentKeys_LoadIndependently() throws Exception {
+        // Arrange
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        Future<String> first = executor.submit(() -> singleFlight.load(1L, blockingLoad(() -> "first")));
+        awaitLoads(1);
+
+        // Act
+        String second = singleFlight.load(2L, () -> "second");
+
+        // Assert
+        assertEquals("second", second);
+        release.countDown();
+        assertEquals("first", first.get());
+    }
+
+    private Supplier<String> blockingLoad(Supplier<String> result) {
+        return () -> {
+            loads.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return result.get();
+        };
+    }
+
+    private List<Future<String>> startWaiters(int count, Supplier<String> call) throws InterruptedException {
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(executor.submit(() -> {
+                synchronized (waiters) {
+                    waiters.add(Thread.currentThread());
+                }
+                return call.get();
+            }));
+        }
+        // Every waiter is parked on the leader's load before it is released
+        while (true) {
+            synchronized (waiters) {
+                if (waiters.size() == count && waiters.stream().allMatch(thread -> thread.getState() == Thread.State.TIMED_WAITING)) {
+                    return futures;
+                }
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitLoads(int count) throws InterruptedException {
+        while (loads.get() < count) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package mk.ukim.finki.wp.workspaces.unitTests.cacheTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mk.ukim.finki.wp.workspaces.config.cache.LocalInvalidationBus;
+import mk.ukim.finki.wp.workspaces.config.cache.WorkspaceCatalogCache;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WorkspaceCatalogCacheTest {
+
+    private static final Long WORKSPACE_ID = 42L;
+
+    private LocalInvalidationBus bus;
+    private WorkspaceCatalogCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        bus = new LocalInvalidationBus();
+        cache = new WorkspaceCatalogCache(bus, true, 100, Duration.ofMinutes(5), Duration.ofSeconds(5), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.close();
+    }
+
+    @Test
+    void testFindViewById_SecondReadServedFromCache() {
+        // Act
+        cache.findViewById(WORKSPACE_ID, id -> load(view(1)));
+        Optional<WorkspaceView> cached = cache.findViewById(WORKSPACE_ID, id -> load(view(2)));
+
+        // Assert
+        assertEquals(view(1), cached);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testInvalidation_EvictsOlderView() {
+        // Arrange
+        cache.findViewById(WORKSPACE_ID, id -> load(view(1)));
+
+        // Act
+        bus.publish(WorkspaceChangedEvent.edited(WORKSPACE_ID, 2));
+
+        // Assert
+        assertEquals(view(2), cache.findViewById(WORKSPACE_ID, id -> load(view(2))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testLateInvalidation_KeepsNewerView() {
+        // Arrange: version 3 is cached before the invalidation for version 2 arrives
+        cache.findViewById(WORKSPACE_ID, id -> load(view(3)));
+
+        // Act
+        bus.publish(WorkspaceChangedEvent.edited(WORKSPACE_ID, 2));
+
+        // Assert
+        assertEquals(view(3), cache.findViewById(WORKSPACE_ID, id -> load(view(1))));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testStaleRead_FinishingAfterInvalidationIsNotCached() {
+        // Act: the read of version 1 only completes once the invalidation for version 2 went through
+        Optional<WorkspaceView> stale = cache.findViewById(WORKSPACE_ID, id -> {
+            bus.publish(WorkspaceChangedEvent.edited(WORKSPACE_ID, 2));
+            return load(view(1));
+        });
+
+        // Assert
+        assertEquals(view(1), stale);
+        assertEquals(view(2), cache.findViewById(WORKSPACE_ID, id -> load(view(2))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testDeletedWorkspace_IsNotCachedAgain() {
+        // Arrange
+        bus.publish(WorkspaceChangedEvent.deleted(WORKSPACE_ID));
+
+        // Act: a replica that has not seen the delete yet still returns the row
+        cache.findViewById(WORKSPACE_ID, id -> load(view(1)));
+        Optional<WorkspaceView> afterDelete = cache.findViewById(WORKSPACE_ID, id -> load(Optional.empty()));
+
+        // Assert
+        assertEquals(Optional.empty(), afterDelete);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testCatalog_ReadRacingAnInvalidationIsNotCached() {
+        // Arrange
+        List<WorkspaceView> stale = cache.findAllViews(0, () -> {
+            bus.publish(WorkspaceChangedEvent.catalogChanged());
+            loads.incrementAndGet();
+            return List.of(view(1).orElseThrow());
+        });
+
+        // Act
+        List<WorkspaceView> fresh = cache.findAllViews(0, () -> {
+            loads.incrementAndGet();
+            return List.of(view(1).orElseThrow(), new WorkspaceView(43L, "New", "Imported", 0L));
+        });
+        List<WorkspaceView> cached = cache.findAllViews(0, List::of);
+
+        // Assert
+        assertEquals(1, stale.size());
+        assertEquals(2, fresh.size());
+        assertEquals(fresh, cached);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testCatalog_ReloadedOnceTheChangeCountMovesPastIt() {
+        // Arrange: the invalidation for the change never reached this instance
+        cache.findAllViews(1, () -> {
+            loads.incrementAndGet();
+            return List.of(view(1).orElseThrow());
+        });
+
+        // Act
+        List<WorkspaceView> sameCount = cache.findAllViews(1, List::of);
+        List<WorkspaceView> laterCount = cache.findAllViews(2, () -> {
+            loads.incrementAndGet();
+            return List.of(view(2).orElseThrow());
+        });
+        List<WorkspaceView> olderCount = cache.findAllViews(1, List::of);
+
+        // Assert
+        assertEquals(List.of(view(1).orElseThrow()), sameCount);
+        assertEquals(List.of(view(2).orElseThrow()), laterCount);
+        assertEquals(laterCount, olderCount);
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<WorkspaceView> load(Optional<WorkspaceView> view) {
+        loads.incrementAndGet();
+        return view;
+    }
+
+    private static Optional<WorkspaceView> view(long version) {
+        return Optional.of(new WorkspaceView(WORKSPACE_ID, "Name " + version, "Description", version));
+    }
+}
@@ -0,0 +1,117 @@
+package mk.ukim.finki.wp.workspaces.unitTests.datasourceTests;
+
+import mk.ukim.finki.wp.workspaces.config.datasource.ReadYourWritesTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory databases stand in for the primary and the replica, each reporting its log position from a table.
+ */
+class ReadYourWritesTrackerTest {
+
+    private static final String POSITION_QUERY = "select position from wal_position";
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReadYourWritesTracker tracker;
+    private final List<Long> returnedPositions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        setPosition(primary, 10);
+        setPosition(replica, 5);
+        tracker = new ReadYourWritesTracker(primary, POSITION_QUERY, POSITION_QUERY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testHasReplayed_WithoutSessionUsesReplica() throws SQLException {
+        try (Connection connection = replica.getConnection()) {
+            assertTrue(tracker.hasReplayed(connection));
+        }
+    }
+
+    @Test
+    void testHasReplayed_ComparesReplayWithClientPosition() throws SQLException {
+        try (ReadYourWritesTracker.Session ignored = tracker.open(10L, returnedPositions::add);
+             Connection connection = replica.getConnection()) {
+            assertFalse(tracker.hasReplayed(connection));
+
+            setPosition(replica, 10);
+            assertTrue(tracker.hasReplayed(connection));
+        }
+    }
+
+    @Test
+    void testRecordWriteOnCommit_ReturnsPrimaryPositionAndWaitsForReplica() throws SQLException {
+        try (ReadYourWritesTracker.Session ignored = tracker.open(null, returnedPositions::add);
+             Connection connection = replica.getConnection()) {
+            // Act
+            TransactionSynchronizationManager.initSynchronization();
+            tracker.recordWriteOnCommit();
+            tracker.recordWriteOnCommit();
+            commit();
+
+            // Assert
+            assertEquals(List.of(10L), returnedPositions);
+            assertFalse(tracker.hasReplayed(connection));
+        }
+    }
+
+    @Test
+    void testRecordWriteOnCommit_RollbackReturnsNothing() {
+        try (ReadYourWritesTracker.Session ignored = tracker.open(null, returnedPositions::add)) {
+            // Act
+            TransactionSynchronizationManager.initSynchronization();
+            tracker.recordWriteOnCommit();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Assert
+            assertTrue(returnedPositions.isEmpty());
+        }
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(dataSource).execute("create table wal_position (position bigint)");
+        return dataSource;
+    }
+
+    private static void setPosition(DriverManagerDataSource dataSource, long position) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("delete from wal_position");
+        jdbcTemplate.update("insert into wal_position values (?)", position);
+    }
+}
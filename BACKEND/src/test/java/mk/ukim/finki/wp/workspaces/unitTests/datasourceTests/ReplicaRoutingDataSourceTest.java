@@ -0,0 +1,134 @@
+package mk.ukim.finki.wp.workspaces.unitTests.datasourceTests;
+
+import mk.ukim.finki.wp.workspaces.config.datasource.ReadYourWritesTracker;
+import mk.ukim.finki.wp.workspaces.config.datasource.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    @Mock
+    private ReadYourWritesTracker tracker;
+
+    private MutableClock clock;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        dataSource = new ReplicaRoutingDataSource(primary, replica, tracker, Duration.ofSeconds(30), clock);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void testGetConnection_ReadOnlyTransactionUsesReplica() throws SQLException {
+        // Arrange
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(tracker.hasReplayed(replicaConnection)).thenReturn(true);
+
+        // Act & Assert
+        assertSame(replicaConnection, dataSource.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void testGetConnection_ReplicaBehindOwnWritesUsesPrimary() throws SQLException {
+        // Arrange
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(tracker.hasReplayed(replicaConnection)).thenReturn(false);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act & Assert
+        assertSame(primaryConnection, dataSource.getConnection());
+        verify(replicaConnection).close();
+    }
+
+    @Test
+    void testGetConnection_ReadWriteTransactionUsesPrimary() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act & Assert
+        assertSame(primaryConnection, dataSource.getConnection());
+        verifyNoInteractions(replica);
+        verify(tracker).recordWriteOnCommit();
+    }
+
+    @Test
+    void testGetConnection_FallsBackToPrimaryWhileReplicaIsDown() throws SQLException {
+        // Arrange
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        // Assert: the replica is tried once, then skipped until the retry period has passed
+        assertSame(primaryConnection, first);
+        assertSame(primaryConnection, second);
+        verify(replica, times(1)).getConnection();
+
+        clock.advance(Duration.ofSeconds(31));
+        dataSource.getConnection();
+        verify(replica, times(2)).getConnection();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package mk.ukim.finki.wp.workspaces.unitTests.filterTests;
+
+import mk.ukim.finki.wp.workspaces.filter.WorkspaceRoute;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per request overhead of deciding whether WorkspaceAccessFilter applies and which workspace id and role it checks.
+ * Before, the filter ran {@code String.matches} up to four times and compiled a pattern on every filtered request;
+ * now it walks the route table. Requests alternate between workspace scoped and other paths.
+ * Run with {@code mvn test -Dtest=WorkspaceRouteBenchmarkTest -Dbenchmark.iterations=10000000}; each variant first
+ * runs a fifth of that to warm up.
+ */
+@EnabledIfSystemProperty(named = "benchmark.iterations", matches = "\\d+")
+class WorkspaceRouteBenchmarkTest {
+
+    private static final String[] PATHS = {
+            "/api/workspace/42",
+            "/api/user/login",
+            "/api/workspace/edit/42",
+            "/api/workspace/my-workspaces",
+            "/api/workspace/42/members:batch"
+    };
+
+    private static final List<WorkspaceRoute> ROUTES = List.of(
+            new WorkspaceRoute("/api/workspace/", "", null, "open it"),
+            new WorkspaceRoute("/api/workspace/edit/", "", Role.ROLE_ADMIN, "edit it"),
+            new WorkspaceRoute("/api/workspace/", "/members:batch", Role.ROLE_ADMIN, "manage its members")
+    );
+
+    private long sink;
+
+    @Test
+    void compareRegexWithRouteTable() {
+        int iterations = Integer.getInteger("benchmark.iterations");
+
+        double regex = nanosPerRequest(iterations, WorkspaceRouteBenchmarkTest::matchWithRegex);
+        double table = nanosPerRequest(iterations, WorkspaceRouteBenchmarkTest::matchWithRouteTable);
+
+        assertThat(sink).isPositive();
+        System.out.printf("Workspace route matching per request: regex %.0f ns, route table %.0f ns (%.1fx)%n",
+                regex, table, regex / table);
+    }
+
+    private double nanosPerRequest(int iterations, ToLongFunction<String> match) {
+        for (int i = 0; i < iterations / 5; i++) {
+            sink += match.applyAsLong(PATHS[i % PATHS.length]);
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += match.applyAsLong(PATHS[i % PATHS.length]);
+        }
+        return (double) (System.nanoTime() - started) / iterations;
+    }
+
+    /**
+     * What shouldNotFilter and doFilterInternal did before the route table.
+     */
+    private static long matchWithRegex(String path) {
+        if (!(path.matches("/api/workspace/\\d+") || path.matches("/api/workspace/edit/\\d+"))) {
+            return -1;
+        }
+        if (path.matches("/api/workspace/\\d+")) {
+            Matcher matcher = Pattern.compile("/api/workspace/(\\d+)").matcher(path);
+            return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+        }
+        if (path.matches("/api/workspace/edit/\\d+")) {
+            Matcher matcher = Pattern.compile("/api/workspace/edit/(\\d+)").matcher(path);
+            return matcher.find() ? Long.parseLong(matcher.group(1)) + Role.ROLE_ADMIN.ordinal() : -1;
+        }
+        return -1;
+    }
+
+    private static long matchWithRouteTable(String path) {
+        for (WorkspaceRoute route : ROUTES) {
+            long workspaceId = route.match(path);
+            if (workspaceId >= 0) {
+                return route.requiredRole() == null ? workspaceId : workspaceId + route.requiredRole().ordinal();
+            }
+        }
+        return -1;
+    }
+}
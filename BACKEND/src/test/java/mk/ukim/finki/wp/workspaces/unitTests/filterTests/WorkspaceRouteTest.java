@@ -0,0 +1,50 @@
+package mk.ukim.finki.wp.workspaces.unitTests.filterTests;
+
+import mk.ukim.finki.wp.workspaces.filter.WorkspaceRoute;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkspaceRouteTest {
+
+    private final WorkspaceRoute open = new WorkspaceRoute("/api/workspace/", "", null, "open it");
+    private final WorkspaceRoute edit = new WorkspaceRoute("/api/workspace/edit/", "", Role.ROLE_ADMIN, "edit it");
+    private final WorkspaceRoute members = new WorkspaceRoute("/api/workspace/", "/members", Role.ROLE_ADMIN, "manage members");
+    private final WorkspaceRoute membersBatch = new WorkspaceRoute("/api/workspace/", "/members:batch", Role.ROLE_ADMIN, "manage its members");
+
+    @Test
+    void testMatch_ExtractsWorkspaceId() {
+        assertEquals(42L, open.match("/api/workspace/42"));
+        assertEquals(7L, edit.match("/api/workspace/edit/7"));
+        assertEquals(3L, members.match("/api/workspace/3/members"));
+        assertEquals(5L, membersBatch.match("/api/workspace/5/members:batch"));
+    }
+
+    @Test
+    void testMatch_RejectsOtherPaths() {
+        assertTrue(open.match("/api/workspace/edit/7") < 0);
+        assertTrue(open.match("/api/workspace/my-workspaces") < 0);
+        assertTrue(open.match("/api/workspace/") < 0);
+        assertTrue(open.match("/api/workspace") < 0);
+        assertTrue(edit.match("/api/workspace/edit/7a") < 0);
+        assertTrue(members.match("/api/workspace/3/member") < 0);
+        assertTrue(members.match("/api/workspace//members") < 0);
+        assertTrue(membersBatch.match("/api/workspace/5/members") < 0);
+    }
+
+    @Test
+    void testMatch_ZeroPaddedIdsMatch() {
+        assertEquals(1L, open.match("/api/workspace/0000000000000000001"));
+        assertEquals(1L, membersBatch.match("/api/workspace/00000000000000000000000001/members:batch"));
+        assertEquals(Long.MAX_VALUE, edit.match("/api/workspace/edit/0" + Long.MAX_VALUE));
+    }
+
+    @Test
+    void testMatch_IdsThatOverflowAreInvalid() {
+        assertEquals(-2L, open.match("/api/workspace/99999999999999999999"));
+        assertEquals(-2L, open.match("/api/workspace/9223372036854775808"));
+        assertEquals(-2L, membersBatch.match("/api/workspace/99999999999999999999/members:batch"));
+        assertEquals(-1L, open.match("/api/workspace/99999999999999999999/members:batch"));
+    }
+}
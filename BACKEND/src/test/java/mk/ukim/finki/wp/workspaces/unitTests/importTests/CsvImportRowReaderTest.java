@@ -0,0 +1,58 @@
+package mk.ukim.finki.wp.workspaces.unitTests.importTests;
+
+import mk.ukim.finki.wp.workspaces.imports.CsvImportRowReader;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.exceptions.InvalidImportRowException;
+import mk.ukim.finki.wp.workspaces.model.imports.MembershipImportRow;
+import mk.ukim.finki.wp.workspaces.model.imports.UserImportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvImportRowReaderTest {
+
+    @Test
+    void testNext_SkipsHeaderAndBlankLines() throws IOException {
+        // Arrange
+        CsvImportRowReader reader = new CsvImportRowReader(new StringReader(
+                "type,username,workspace,role\n\nmembership,ana,7,admin\n"), 100);
+
+        // Act
+        MembershipImportRow row = (MembershipImportRow) reader.next();
+
+        // Assert
+        assertEquals(new MembershipImportRow(3, "ana", "7", Role.ROLE_ADMIN), row);
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testNext_RejectsOverlongLineAndContinues() throws IOException {
+        // Arrange
+        CsvImportRowReader reader = new CsvImportRowReader(new StringReader(
+                "type,username,email,password\nuser," + "a".repeat(100) + ",a@example.com,secret\nuser,bob,bob@example.com,secret"), 40);
+
+        // Act
+        InvalidImportRowException exception = assertThrows(InvalidImportRowException.class, reader::next);
+        UserImportRow row = (UserImportRow) reader.next();
+
+        // Assert
+        assertEquals(2, exception.getLine());
+        assertEquals(new UserImportRow(3, "bob", "bob@example.com", "secret"), row);
+    }
+
+    @Test
+    void testNext_RejectsUnknownRole() {
+        // Arrange
+        CsvImportRowReader reader = new CsvImportRowReader(new StringReader(
+                "type,username,workspace,role\nmembership,ana,7,owner"), 100);
+
+        // Act
+        InvalidImportRowException exception = assertThrows(InvalidImportRowException.class, reader::next);
+
+        // Assert
+        assertEquals("Unknown role owner", exception.getMessage());
+    }
+}
@@ -0,0 +1,81 @@
+package mk.ukim.finki.wp.workspaces.unitTests.repositoryTests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the lookups behind the repository methods on the hot paths are answered from the
+ * indexes created by the schema migrations rather than by a table scan.
+ */
+@DataJpaTest
+public class QueryPlanTests {
+
+    private static final int USERS = 5_000;
+    private static final int WORKSPACES = 500;
+    private static final int MEMBERSHIPS_PER_USER = 4;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{(long) i, "user" + i, "user" + i + "@example.com", "password"});
+        }
+        jdbcTemplate.batchUpdate("insert into \"workspace_user\" (\"id\", \"username\", \"email\", \"password\", \"membership_version\") values (?, ?, ?, ?, 0)", users);
+
+        List<Object[]> workspaces = new ArrayList<>();
+        for (int i = 1; i <= WORKSPACES; i++) {
+            workspaces.add(new Object[]{(long) i, "workspace" + i, "description" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into \"workspace\" (\"id\", \"name\", \"description\") values (?, ?, ?)", workspaces);
+
+        List<Object[]> memberships = new ArrayList<>();
+        long id = 1;
+        for (int user = 1; user <= USERS; user++) {
+            for (int j = 0; j < MEMBERSHIPS_PER_USER; j++) {
+                long workspace = (user + (long) j * 97) % WORKSPACES + 1;
+                memberships.add(new Object[]{id++, (long) user, workspace, j == 0 ? "ROLE_ADMIN" : "ROLE_VISITOR"});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into \"user_workspace\" (\"id\", \"user_id\", \"workspace_id\", \"role\") values (?, ?, ?, ?)", memberships);
+    }
+
+    @Test
+    public void testFindByUsername_UsesUsernameIndex() {
+        assertThat(plan("select * from \"workspace_user\" where \"username\" = 'user4242'"))
+                .contains("ux_workspace_user_username");
+    }
+
+    @Test
+    public void testFindByWorkspaceIdAndUserId_UsesMembershipIndex() {
+        assertThat(plan("select * from \"user_workspace\" where \"workspace_id\" = 17 and \"user_id\" = 4242"))
+                .contains("ux_user_workspace_user_workspace");
+    }
+
+    @Test
+    public void testFindAllByUserId_DoesNotScanMemberships() {
+        // H2 may answer this from the foreign key index on user_id instead of the composite one
+        assertThat(plan("select \"workspace_id\", \"role\" from \"user_workspace\" where \"user_id\" = 4242"))
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    public void testFindUserIdsByWorkspaceId_DoesNotScanMemberships() {
+        assertThat(plan("select \"user_id\" from \"user_workspace\" where \"workspace_id\" = 17"))
+                .doesNotContain("tableScan");
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+}
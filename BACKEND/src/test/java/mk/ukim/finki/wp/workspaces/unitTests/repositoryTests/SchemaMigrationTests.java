@@ -0,0 +1,78 @@
+package mk.ukim.finki.wp.workspaces.unitTests.repositoryTests;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrates a database whose schema predates the migrations, the way the dev profile does: baselined at V1,
+ * so only the later migrations run against the tables ddl-auto=update had created.
+ */
+public class SchemaMigrationTests {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:baselined" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table \"workspace_user\" (\"id\" bigint generated by default as identity primary key, "
+                + "\"username\" varchar(255), \"email\" varchar(255), \"password\" varchar(255))");
+        jdbcTemplate.execute("create table \"workspace\" (\"id\" bigint generated by default as identity primary key, "
+                + "\"name\" varchar(255), \"description\" varchar(255))");
+        jdbcTemplate.execute("create table \"user_workspace\" (\"id\" bigint generated by default as identity primary key, "
+                + "\"user_id\" bigint references \"workspace_user\" (\"id\"), \"workspace_id\" bigint references \"workspace\" (\"id\"), "
+                + "\"role\" varchar(255))");
+    }
+
+    @Test
+    public void testMigrate_BaselinedDatabaseGainsMembershipVersion() {
+        // Given
+        jdbcTemplate.update("insert into \"workspace_user\" (\"username\", \"email\", \"password\") values ('existing', 'existing@example.com', 'password')");
+
+        // When
+        migrate();
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject(
+                "select \"membership_version\" from \"workspace_user\" where \"username\" = 'existing'", Long.class))
+                .isZero();
+    }
+
+    @Test
+    public void testMigrate_DuplicatesMergedIntoLowestId() {
+        // Given
+        jdbcTemplate.update("insert into \"workspace_user\" (\"id\", \"username\", \"email\", \"password\") values "
+                + "(1, 'twice', 'first@example.com', 'password'), (2, 'twice', 'second@example.com', 'password')");
+        jdbcTemplate.update("insert into \"workspace\" (\"id\", \"name\", \"description\") values "
+                + "(1, 'Shared', 'Joined by both copies'), (2, 'Own', 'Joined by the second copy')");
+        jdbcTemplate.update("insert into \"user_workspace\" (\"id\", \"user_id\", \"workspace_id\", \"role\") values "
+                + "(1, 1, 1, 'ROLE_VISITOR'), (2, 2, 1, 'ROLE_ADMIN'), (3, 2, 2, 'ROLE_VISITOR'), (4, 2, 2, 'ROLE_VISITOR')");
+
+        // When
+        migrate();
+
+        // Then
+        assertThat(jdbcTemplate.queryForList("select \"id\" from \"workspace_user\"", Long.class)).containsExactly(1L);
+        assertThat(jdbcTemplate.queryForList(
+                "select \"id\" || ':' || \"user_id\" || ':' || \"workspace_id\" || ':' || \"role\" from \"user_workspace\" order by \"id\"",
+                String.class))
+                .containsExactly("1:1:1:ROLE_ADMIN", "3:1:2:ROLE_VISITOR");
+    }
+
+    private void migrate() {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+}
@@ -181,4 +181,21 @@ public class UserRepositoryTests {
         Optional<User> deletedUser = userRepository.findById(userId);
         assertThat(deletedUser).isNotPresent();
     }
+
+    @Test
+    public void testIncrementMembershipVersions() {
+        // Given
+        Long userId = testUser.getId();
+        userRepository.flush();
+
+        // When
+        int updated = userRepository.incrementMembershipVersions(List.of(userId));
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(userRepository.findMembershipVersionById(userId)).contains(1L);
+        assertThat(userRepository.findMembershipVersionsByIdIn(List.of(userId)))
+                .singleElement()
+                .satisfies(view -> assertThat(view.membershipVersion()).isEqualTo(1L));
+    }
 }
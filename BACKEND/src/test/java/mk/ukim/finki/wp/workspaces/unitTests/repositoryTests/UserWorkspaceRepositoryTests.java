@@ -4,6 +4,8 @@ import mk.ukim.finki.wp.workspaces.model.domain.User;
 import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
 import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
 import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceRoleView;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceWithRoleView;
 import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
 import mk.ukim.finki.wp.workspaces.repository.UserRepository;
 import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
@@ -12,6 +14,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -111,6 +114,17 @@ public class UserWorkspaceRepositoryTests {
         assertThat(userWorkspaces).isEmpty();
     }
 
+    @Test
+    public void testFindWorkspaceRolesByUserId() {
+        // Given: testUser is an admin of testWorkspace
+
+        // When: We project the memberships of testUser
+        List<WorkspaceRoleView> roles = userWorkspaceRepository.findWorkspaceRolesByUserId(testUser.getId());
+
+        // Then: Only the (workspace id, role) tuple is returned
+        assertThat(roles).containsExactly(new WorkspaceRoleView(testWorkspace.getId(), Role.ROLE_ADMIN));
+    }
+
     @Test
     public void testDeleteUserWorkspace() {
         // Given: The UserWorkspace testUserWorkspace exists in the repository
@@ -136,4 +150,34 @@ public class UserWorkspaceRepositoryTests {
         Optional<UserWorkspace> deletedUserWorkspace = userWorkspaceRepository.findById(nonExistentUserWorkspaceId);
         assertThat(deletedUserWorkspace).isNotPresent();
     }
+
+    @Test
+    public void testFindPageByUserId() {
+        // Given: The test user is a member of two more workspaces
+        Workspace second = workspaceRepository.save(new Workspace("Second", "Second workspace"));
+        Workspace third = workspaceRepository.save(new Workspace("Third", "Third workspace"));
+        userWorkspaceRepository.save(new UserWorkspace(testUser, second, Role.ROLE_VISITOR));
+        userWorkspaceRepository.save(new UserWorkspace(testUser, third, Role.ROLE_VISITOR));
+
+        // When: We read the memberships two at a time
+        List<WorkspaceWithRoleView> first = userWorkspaceRepository.findPageByUserId(testUser.getId(), 0L, Limit.of(2));
+        List<WorkspaceWithRoleView> next = userWorkspaceRepository.findPageByUserId(testUser.getId(), first.get(1).id(), Limit.of(2));
+
+        // Then: The pages follow workspace id order without overlapping
+        assertThat(first).extracting(WorkspaceWithRoleView::id).containsExactly(testWorkspace.getId(), second.getId());
+        assertThat(next).extracting(WorkspaceWithRoleView::id).containsExactly(third.getId());
+    }
+
+    @Test
+    public void testFindWorkspacesWithRoleByUserId() {
+        // Given: We already have testUser and testWorkspace created and saved in setUp()
+
+        // When
+        List<WorkspaceWithRoleView> views = userWorkspaceRepository.findWorkspacesWithRoleByUserId(testUser.getId());
+
+        // Then
+        assertThat(views).containsExactly(new WorkspaceWithRoleView(
+                testWorkspace.getId(), "Test Workspace", "Description of test workspace", Role.ROLE_ADMIN, 0L));
+    }
+
 }
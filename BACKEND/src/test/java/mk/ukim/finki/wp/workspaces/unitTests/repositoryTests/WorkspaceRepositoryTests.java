@@ -1,14 +1,17 @@
 package mk.ukim.finki.wp.workspaces.unitTests.repositoryTests;
 
 import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
 import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -130,4 +133,30 @@ public class WorkspaceRepositoryTests {
         assertThat(deletedUser).isNotPresent();
     }
 
+    @Test
+    public void testFindViewPage() {
+        // Given: Two more workspaces are saved after the one from the setup method
+        Workspace second = workspaceRepository.save(new Workspace("Second", "Second workspace"));
+        Workspace third = workspaceRepository.save(new Workspace("Third", "Third workspace"));
+
+        // When: We seek past the first workspace with a page of one
+        List<WorkspaceView> page = workspaceRepository.findViewPage(testWorkspace.getId(), Limit.of(1));
+        List<WorkspaceView> rest = workspaceRepository.findViewPage(page.get(0).id(), Limit.of(10));
+
+        // Then: Each page continues strictly after the previous key
+        assertThat(page).extracting(WorkspaceView::id).containsExactly(second.getId());
+        assertThat(rest).extracting(WorkspaceView::id).containsExactly(third.getId());
+    }
+
+    @Test
+    public void testFindViewById() {
+        // Given: A workspace is already saved in the setup method
+
+        // When: We read it as a projection
+        Optional<WorkspaceView> view = workspaceRepository.findViewById(testWorkspace.getId());
+
+        // Then: The view carries the scalar columns only
+        assertThat(view).contains(new WorkspaceView(testWorkspace.getId(), "Test Workspace", "Description of test workspace", 0L));
+    }
+
 }
@@ -0,0 +1,81 @@
+package mk.ukim.finki.wp.workspaces.unitTests.securityTests;
+
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.security.JwtClaims;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtHelperTest {
+
+    private JwtHelper jwtHelper;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtHelper = new JwtHelper();
+        user = new User("testuser", "testemail@example.com", "password");
+        user.setId(1L);
+    }
+
+    @Test
+    void testParse_DecodesAllClaimsAtOnce() {
+        // Arrange
+        String token = jwtHelper.generateTokenWithWorkspacesAccess(user, Map.of(1L, Role.ROLE_ADMIN, 2L, Role.ROLE_VISITOR));
+
+        // Act
+        JwtClaims claims = jwtHelper.parse(token);
+
+        // Assert
+        assertEquals("testuser", claims.subject());
+        assertFalse(claims.isExpired());
+        assertEquals(2, claims.workspaceAccess().size());
+        assertEquals(Role.ROLE_ADMIN, claims.workspaceAccess().roleOf(1L));
+        assertEquals(Role.ROLE_VISITOR, claims.workspaceAccess().roleOf(2L));
+        assertTrue(jwtHelper.isValid(claims, user));
+    }
+
+    @Test
+    void testParse_TokenWithoutWorkspaceAccess() {
+        // Arrange
+        String token = jwtHelper.generateToken(user);
+
+        // Act
+        JwtClaims claims = jwtHelper.parse(token);
+
+        // Assert
+        assertEquals("testuser", claims.subject());
+        assertEquals(0, claims.workspaceAccess().size());
+    }
+
+    @Test
+    void testParse_CompactWorkspaceAccess() {
+        // Arrange
+        JwtHelper compactJwtHelper = new JwtHelper(true);
+        String token = compactJwtHelper.generateTokenWithWorkspacesAccess(user, Map.of(1L, Role.ROLE_ADMIN, 300L, Role.ROLE_VISITOR));
+
+        // Act
+        JwtClaims claims = jwtHelper.parse(token);
+
+        // Assert
+        assertEquals(2, claims.workspaceAccess().size());
+        assertEquals(Role.ROLE_ADMIN, claims.workspaceAccess().roleOf(1L));
+        assertEquals(Role.ROLE_VISITOR, claims.workspaceAccess().roleOf(300L));
+        assertEquals(Map.of(1L, "ROLE_ADMIN", 300L, "ROLE_VISITOR"), compactJwtHelper.extractWorkspaceAccess(token));
+    }
+
+    @Test
+    void testParse_TamperedToken() {
+        // Arrange
+        String token = jwtHelper.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // Act & Assert
+        assertThrows(Exception.class, () -> jwtHelper.parse(tampered));
+    }
+}
@@ -0,0 +1,105 @@
+package mk.ukim.finki.wp.workspaces.unitTests.securityTests;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.security.JwtClaims;
+import mk.ukim.finki.wp.workspaces.security.JwtConstants;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost of reading the bearer token of one request to {@code /api/workspace/edit/{id}}. Before, the filters verified
+ * the signature four times, building a new parser and decoding the key each time; now the token is parsed once.
+ * The per-call methods still on {@link JwtHelper}, four verifications with the shared parser, are measured in between.
+ * Run with {@code mvn test -Dtest=JwtParseBenchmarkTest -Dbenchmark.iterations=100000}; each variant first runs
+ * a fifth of that to warm up.
+ */
+@EnabledIfSystemProperty(named = "benchmark.iterations", matches = "\\d+")
+class JwtParseBenchmarkTest {
+
+    private static final int MEMBERSHIPS = 20;
+
+    private final JwtHelper jwtHelper = new JwtHelper();
+    private long sink;
+
+    @Test
+    void comparePerCallParsingWithParseOnce() {
+        int iterations = Integer.getInteger("benchmark.iterations");
+        String token = token();
+
+        double rebuilt = nanosPerRequest(iterations, token, this::readWithRebuiltParser);
+        double perCall = nanosPerRequest(iterations, token, this::readPerCall);
+        double once = nanosPerRequest(iterations, token, this::readOnce);
+
+        assertThat(sink).isPositive();
+        System.out.printf("Token reads per request, %d memberships: rebuilt parser x4 %.1f us, shared parser x4 %.1f us, " +
+                        "parse once %.1f us (%.1fx)%n",
+                MEMBERSHIPS, rebuilt / 1_000, perCall / 1_000, once / 1_000, rebuilt / once);
+    }
+
+    private double nanosPerRequest(int iterations, String token, ToLongFunction<String> read) {
+        for (int i = 0; i < iterations / 5; i++) {
+            sink += read.applyAsLong(token);
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += read.applyAsLong(token);
+        }
+        return (double) (System.nanoTime() - started) / iterations;
+    }
+
+    /**
+     * The calls JwtFilter and WorkspaceAccessFilter made: the username, then isValid reading the username and the
+     * expiration again, then the workspace access.
+     */
+    @SuppressWarnings("unchecked")
+    private long readWithRebuiltParser(String token) {
+        String username = rebuiltParserClaims(token).getSubject();
+        boolean valid = rebuiltParserClaims(token).getSubject().equals(username)
+                && rebuiltParserClaims(token).getExpiration().getTime() > System.currentTimeMillis();
+        Map<String, String> raw = (Map<String, String>) rebuiltParserClaims(token).get("workspaceAccess");
+        Map<Long, String> workspaceAccess = new HashMap<>();
+        raw.forEach((id, role) -> workspaceAccess.put(Long.parseLong(id), role));
+        return valid ? workspaceAccess.size() : 0;
+    }
+
+    private long readPerCall(String token) {
+        String username = jwtHelper.extractUsername(token);
+        boolean valid = jwtHelper.extractUsername(token).equals(username) && !jwtHelper.isExpired(token);
+        return valid ? jwtHelper.extractWorkspaceAccess(token).size() : 0;
+    }
+
+    private long readOnce(String token) {
+        JwtClaims claims = jwtHelper.parse(token);
+        return claims.isExpired() ? 0 : claims.workspaceAccess().size();
+    }
+
+    private static Claims rebuiltParserClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtConstants.SECRET_KEY)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private String token() {
+        User user = new User("benchmark", "benchmark@example.com", "password");
+        user.setId(1L);
+        Map<Long, Role> roles = new HashMap<>();
+        for (long id = 1; id <= MEMBERSHIPS; id++) {
+            roles.put(id, id % 2 == 0 ? Role.ROLE_ADMIN : Role.ROLE_VISITOR);
+        }
+        return jwtHelper.generateTokenWithWorkspacesAccess(user, roles);
+    }
+}
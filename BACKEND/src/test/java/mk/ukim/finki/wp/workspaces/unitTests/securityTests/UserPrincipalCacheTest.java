@@ -0,0 +1,107 @@
+package mk.ukim.finki.wp.workspaces.unitTests.securityTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mk.ukim.finki.wp.workspaces.config.cache.LocalInvalidationBus;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.events.MembershipChangedEvent;
+import mk.ukim.finki.wp.workspaces.model.events.UserDeletedEvent;
+import mk.ukim.finki.wp.workspaces.security.UserPrincipal;
+import mk.ukim.finki.wp.workspaces.security.UserPrincipalCache;
+import mk.ukim.finki.wp.workspaces.service.domain.UserService;
+import mk.ukim.finki.wp.workspaces.service.domain.UserWorkspaceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPrincipalCacheTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private UserWorkspaceService userWorkspaceService;
+
+    private final LocalInvalidationBus bus = new LocalInvalidationBus();
+    private UserPrincipalCache userPrincipalCache;
+
+    @BeforeEach
+    void setUp() {
+        userPrincipalCache = new UserPrincipalCache(userService, userWorkspaceService, bus, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+        User user = new User("testuser", "testemail@example.com", "password");
+        user.setId(1L);
+        when(userService.findByUsername("testuser")).thenReturn(user);
+        when(userWorkspaceService.workspacesWithRolesForUser(1L)).thenReturn(Map.of(2L, Role.ROLE_ADMIN));
+    }
+
+    @Test
+    void testGet_WarmUserDoesNotHitServices() {
+        // Act
+        UserPrincipal first = userPrincipalCache.get("testuser");
+        UserPrincipal second = userPrincipalCache.get("testuser");
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1L, first.id());
+        assertEquals(Role.ROLE_ADMIN, first.workspaceRoles().get(2L));
+        verify(userService, times(1)).findByUsername("testuser");
+        verify(userWorkspaceService, times(1)).workspacesWithRolesForUser(1L);
+    }
+
+    @Test
+    void testMembershipChanged_ReloadsPrincipal() {
+        // Arrange
+        userPrincipalCache.get("testuser");
+
+        // Act
+        userPrincipalCache.onMembershipChanged(new MembershipChangedEvent(Set.of(1L)));
+        userPrincipalCache.get("testuser");
+
+        // Assert
+        verify(userService, times(2)).findByUsername("testuser");
+    }
+
+    @Test
+    void testUserDeleted_ReloadsPrincipal() {
+        // Arrange
+        userPrincipalCache.get("testuser");
+
+        // Act
+        userPrincipalCache.onUserDeleted(new UserDeletedEvent(1L, "testuser"));
+        userPrincipalCache.get("testuser");
+
+        // Assert
+        verify(userService, times(2)).findByUsername("testuser");
+    }
+
+    @Test
+    void testUserDeletedOnOtherInstance_ReloadsPrincipal() {
+        // Arrange
+        LocalInvalidationBus otherInstance = new LocalInvalidationBus();
+        userPrincipalCache.get("testuser");
+
+        // Act
+        otherInstance.publish(new UserDeletedEvent(1L, "testuser"));
+        userPrincipalCache.get("testuser");
+
+        // Assert
+        verify(userService, times(2)).findByUsername("testuser");
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.close();
+    }
+}
@@ -0,0 +1,115 @@
+package mk.ukim.finki.wp.workspaces.unitTests.securityTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mk.ukim.finki.wp.workspaces.config.cache.LocalInvalidationBus;
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.events.UserDeletedEvent;
+import mk.ukim.finki.wp.workspaces.security.JwtClaims;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import mk.ukim.finki.wp.workspaces.security.VerifiedTokenCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final LocalInvalidationBus bus = new LocalInvalidationBus();
+    private JwtHelper jwtHelper;
+    private String token;
+    private AtomicInteger verifications;
+    private Function<String, JwtClaims> countingVerifier;
+
+    @BeforeEach
+    void setUp() {
+        jwtHelper = new JwtHelper();
+        User user = new User("testuser", "testemail@example.com", "password");
+        token = jwtHelper.generateTokenWithWorkspacesAccess(user, Map.of(1L, Role.ROLE_ADMIN));
+        verifications = new AtomicInteger();
+        countingVerifier = t -> {
+            verifications.incrementAndGet();
+            return jwtHelper.parse(t);
+        };
+    }
+
+    @Test
+    void testGet_VerifiesOnlyOnFirstCall() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(bus, true, 100, new SimpleMeterRegistry());
+
+        // Act
+        JwtClaims first = cache.get(token, countingVerifier);
+        JwtClaims second = cache.get(token, countingVerifier);
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(1, verifications.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void testGet_Disabled() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(bus, false, 100, new SimpleMeterRegistry());
+
+        // Act
+        cache.get(token, countingVerifier);
+        cache.get(token, countingVerifier);
+
+        // Assert
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void testUserDeleted_PurgesTokensOfSubject() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(bus, true, 100, new SimpleMeterRegistry());
+        cache.get(token, countingVerifier);
+
+        // Act
+        cache.onUserDeleted(new UserDeletedEvent(1L, "testuser"));
+        cache.get(token, countingVerifier);
+
+        // Assert
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void testUserDeletedOnOtherInstance_PurgesTokensOfSubject() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(bus, true, 100, new SimpleMeterRegistry());
+        LocalInvalidationBus otherInstance = new LocalInvalidationBus();
+        cache.get(token, countingVerifier);
+
+        // Act
+        otherInstance.publish(new UserDeletedEvent(1L, "testuser"));
+        cache.get(token, countingVerifier);
+
+        // Assert
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void testGet_FailedVerificationIsNotCached() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(bus, true, 100, new SimpleMeterRegistry());
+        String tampered = token + "x";
+
+        // Act & Assert
+        assertThrows(Exception.class, () -> cache.get(tampered, countingVerifier));
+        assertThrows(Exception.class, () -> cache.get(tampered, countingVerifier));
+        assertEquals(2, verifications.get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.close();
+    }
+}
@@ -0,0 +1,79 @@
+package mk.ukim.finki.wp.workspaces.unitTests.securityTests;
+
+import mk.ukim.finki.wp.workspaces.model.domain.User;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.security.JwtHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Token size and parse time with the workspaceAccess claim as a JSON object against the compact encoding.
+ * Run with {@code mvn test -Dtest=WorkspaceAccessClaimBenchmarkTest -Dbenchmark.memberships=10,1000,50000}.
+ * Every token is parsed often enough to read about a million memberships, after a warm-up of a fifth of that.
+ */
+@EnabledIfSystemProperty(named = "benchmark.memberships", matches = "\\d+(,\\d+)*")
+class WorkspaceAccessClaimBenchmarkTest {
+
+    private static final int MEMBERSHIPS_READ = 1_000_000;
+
+    private final JwtHelper jsonJwtHelper = new JwtHelper(false);
+    private final JwtHelper compactJwtHelper = new JwtHelper(true);
+    private long sink;
+
+    @Test
+    void compareJsonWithCompactClaim() {
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.memberships").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        User user = new User("benchmark", "benchmark@example.com", "password");
+        user.setId(1L);
+
+        for (int memberships : sizes) {
+            Map<Long, Role> roles = roles(memberships);
+            String json = jsonJwtHelper.generateTokenWithWorkspacesAccess(user, roles);
+            String compact = compactJwtHelper.generateTokenWithWorkspacesAccess(user, roles);
+            int iterations = Math.max(10, MEMBERSHIPS_READ / memberships);
+
+            double jsonParse = nanosPerParse(jsonJwtHelper, json, iterations);
+            double compactParse = nanosPerParse(compactJwtHelper, compact, iterations);
+
+            assertThat(sink).isPositive();
+            System.out.printf("workspaceAccess claim, %d memberships: JSON %d bytes in %.1f us, compact %d bytes in %.1f us " +
+                            "(%.1fx smaller, %.1fx faster)%n",
+                    memberships, json.length(), jsonParse / 1_000, compact.length(), compactParse / 1_000,
+                    (double) json.length() / compact.length(), jsonParse / compactParse);
+        }
+    }
+
+    private double nanosPerParse(JwtHelper jwtHelper, String token, int iterations) {
+        for (int i = 0; i < iterations / 5; i++) {
+            sink += jwtHelper.parse(token).workspaceAccess().size();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += jwtHelper.parse(token).workspaceAccess().size();
+        }
+        return (double) (System.nanoTime() - started) / iterations;
+    }
+
+    /**
+     * Ids ascending with gaps, as a user joins workspaces created over time, a fifth of them as admin.
+     */
+    private static Map<Long, Role> roles(int memberships) {
+        Random random = new Random(memberships);
+        Map<Long, Role> roles = new HashMap<>();
+        long id = 0;
+        for (int i = 0; i < memberships; i++) {
+            id += 1 + random.nextInt(50);
+            roles.put(id, random.nextInt(5) == 0 ? Role.ROLE_ADMIN : Role.ROLE_VISITOR);
+        }
+        return roles;
+    }
+}
@@ -0,0 +1,55 @@
+package mk.ukim.finki.wp.workspaces.unitTests.securityTests;
+
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.security.WorkspaceAccess;
+import mk.ukim.finki.wp.workspaces.security.WorkspaceAccessCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkspaceAccessCodecTest {
+
+    @Test
+    void testRoundTrip_ManyMemberships() {
+        // Arrange
+        Map<Long, Role> roles = new HashMap<>();
+        for (long id = 1; id <= 50_000; id++) {
+            roles.put(id * 3, id % 7 == 0 ? Role.ROLE_ADMIN : Role.ROLE_VISITOR);
+        }
+
+        // Act
+        String encoded = WorkspaceAccessCodec.encode(roles);
+        WorkspaceAccess decoded = WorkspaceAccessCodec.decode(encoded);
+
+        // Assert
+        assertEquals(roles, decoded.asMap());
+        assertEquals(Role.ROLE_ADMIN, decoded.roleOf(21L));
+        assertNull(decoded.roleOf(22L));
+        // one delta byte per id plus one role bit, Base64 encoded
+        assertTrue(encoded.length() < 80_000);
+    }
+
+    @Test
+    void testRoundTrip_Empty() {
+        // Act
+        WorkspaceAccess decoded = WorkspaceAccessCodec.decode(WorkspaceAccessCodec.encode(Map.of()));
+
+        // Assert
+        assertEquals(0, decoded.size());
+        assertFalse(decoded.contains(1L));
+    }
+
+    @Test
+    void testDecode_Malformed() {
+        // Arrange
+        String encoded = WorkspaceAccessCodec.encode(Map.of(1L, Role.ROLE_ADMIN, 2L, Role.ROLE_VISITOR));
+        String truncated = encoded.substring(0, encoded.length() - 1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> WorkspaceAccessCodec.decode(truncated));
+        assertThrows(IllegalArgumentException.class, () -> WorkspaceAccessCodec.decode("AA"));
+    }
+}
@@ -0,0 +1,66 @@
+package mk.ukim.finki.wp.workspaces.unitTests.securityTests;
+
+import mk.ukim.finki.wp.workspaces.model.context.WorkspaceContext;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkspaceContextTest {
+
+    private final UserPrincipal principal = new UserPrincipal(1L, "testuser", Map.of(2L, Role.ROLE_ADMIN, 3L, Role.ROLE_VISITOR));
+
+    @Test
+    void testBind_AuthoritiesFollowTheBoundWorkspace() {
+        // Act & Assert
+        assertTrue(principal.getAuthorities().isEmpty());
+        try (WorkspaceContext.Scope ignored = WorkspaceContext.bind(2L)) {
+            assertEquals(List.of(Role.ROLE_ADMIN), principal.getAuthorities());
+        }
+        assertTrue(principal.getAuthorities().isEmpty());
+    }
+
+    @Test
+    void testBind_NestedScopeRestoresTheEnclosingWorkspace() {
+        // Act & Assert
+        try (WorkspaceContext.Scope outer = WorkspaceContext.bind(2L)) {
+            try (WorkspaceContext.Scope inner = WorkspaceContext.bind(3L)) {
+                assertEquals(3L, WorkspaceContext.getCurrentWorkspaceId());
+            }
+            assertEquals(2L, WorkspaceContext.getCurrentWorkspaceId());
+        }
+        assertNull(WorkspaceContext.getCurrentWorkspaceId());
+    }
+
+    @Test
+    void testClose_OutOfOrderFails() {
+        // Arrange
+        WorkspaceContext.Scope outer = WorkspaceContext.bind(2L);
+        WorkspaceContext.Scope inner = WorkspaceContext.bind(3L);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, outer::close);
+        inner.close();
+        outer.close();
+        assertNull(WorkspaceContext.getCurrentWorkspaceId());
+    }
+
+    @Test
+    void testBind_NotVisibleOnOtherThreads() throws InterruptedException {
+        // Arrange
+        AtomicReference<Long> seen = new AtomicReference<>(-1L);
+
+        // Act
+        try (WorkspaceContext.Scope ignored = WorkspaceContext.bind(2L)) {
+            Thread.ofVirtual().start(() -> seen.set(WorkspaceContext.getCurrentWorkspaceId())).join();
+        }
+
+        // Assert
+        assertNull(seen.get());
+    }
+}
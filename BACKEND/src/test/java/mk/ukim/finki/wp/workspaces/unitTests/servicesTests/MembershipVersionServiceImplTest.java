@@ -0,0 +1,140 @@
+package mk.ukim.finki.wp.workspaces.unitTests.servicesTests;
+
+import mk.ukim.finki.wp.workspaces.model.events.UserDeletedEvent;
+import mk.ukim.finki.wp.workspaces.model.projections.MembershipVersionView;
+import mk.ukim.finki.wp.workspaces.repository.UserRepository;
+import mk.ukim.finki.wp.workspaces.service.domain.impl.MembershipVersionServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipVersionServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private MembershipVersionServiceImpl membershipVersionService;
+
+    @BeforeEach
+    void setUp() {
+        membershipVersionService = new MembershipVersionServiceImpl(userRepository, 100, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testCurrentVersion_LoadsOnlyOnce() {
+        // Arrange
+        when(userRepository.findMembershipVersionById(1L)).thenReturn(Optional.of(3L));
+
+        // Act
+        long first = membershipVersionService.currentVersion(1L);
+        long second = membershipVersionService.currentVersion(1L);
+
+        // Assert
+        assertEquals(3L, first);
+        assertEquals(3L, second);
+        verify(userRepository, times(1)).findMembershipVersionById(1L);
+    }
+
+    @Test
+    void testBump_UpdatesTableWithoutFurtherLookups() {
+        // Arrange
+        when(userRepository.findMembershipVersionsByIdIn(Set.of(1L)))
+                .thenReturn(List.of(new MembershipVersionView(1L, 4L)));
+
+        // Act
+        membershipVersionService.bump(Set.of(1L));
+
+        // Assert
+        assertEquals(4L, membershipVersionService.currentVersion(1L));
+        verify(userRepository, times(1)).incrementMembershipVersions(Set.of(1L));
+        verify(userRepository, never()).findMembershipVersionById(any());
+    }
+
+    @Test
+    void testBump_RememberedOnlyAfterCommit() {
+        // Arrange
+        when(userRepository.findMembershipVersionById(1L)).thenReturn(Optional.of(3L));
+        when(userRepository.findMembershipVersionsByIdIn(Set.of(1L)))
+                .thenReturn(List.of(new MembershipVersionView(1L, 4L)));
+        membershipVersionService.currentVersion(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        membershipVersionService.bump(Set.of(1L));
+        long beforeCommit = membershipVersionService.currentVersion(1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertEquals(3L, beforeCommit);
+        assertEquals(4L, membershipVersionService.currentVersion(1L));
+    }
+
+    @Test
+    void testBump_RolledBackLeavesVersion() {
+        // Arrange
+        when(userRepository.findMembershipVersionById(1L)).thenReturn(Optional.of(3L));
+        when(userRepository.findMembershipVersionsByIdIn(Set.of(1L)))
+                .thenReturn(List.of(new MembershipVersionView(1L, 4L)));
+        membershipVersionService.currentVersion(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        membershipVersionService.bump(Set.of(1L));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        assertEquals(3L, membershipVersionService.currentVersion(1L));
+    }
+
+    @Test
+    void testCurrentVersion_ReloadedAfterTtl() throws InterruptedException {
+        // Arrange
+        membershipVersionService = new MembershipVersionServiceImpl(userRepository, 100, Duration.ofMillis(50));
+        when(userRepository.findMembershipVersionById(1L)).thenReturn(Optional.of(3L), Optional.of(5L));
+        membershipVersionService.currentVersion(1L);
+
+        // Act
+        Thread.sleep(100);
+        long reloaded = membershipVersionService.currentVersion(1L);
+
+        // Assert
+        assertEquals(5L, reloaded);
+        verify(userRepository, times(2)).findMembershipVersionById(1L);
+    }
+
+    @Test
+    void testUserDeleted_ForgetsVersion() {
+        // Arrange
+        when(userRepository.findMembershipVersionById(1L)).thenReturn(Optional.of(0L));
+        membershipVersionService.currentVersion(1L);
+
+        // Act
+        membershipVersionService.onUserDeleted(new UserDeletedEvent(1L, "testuser"));
+        membershipVersionService.currentVersion(1L);
+
+        // Assert
+        verify(userRepository, times(2)).findMembershipVersionById(1L);
+    }
+}
@@ -4,6 +4,7 @@ import mk.ukim.finki.wp.workspaces.model.domain.User;
 import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
 import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
 import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceRoleView;
 import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
 import mk.ukim.finki.wp.workspaces.service.domain.impl.UserWorkspaceServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -86,9 +87,12 @@ class UserWorkspaceServiceImplTest {
         testUserWorkspace2.setUser(testUser);
         testUserWorkspace2.setWorkspace(testWorkspace2);
 
-        List<UserWorkspace> userWorkspaces = List.of(testUserWorkspace1, testUserWorkspace2);
+        List<WorkspaceRoleView> userWorkspaces = List.of(
+                new WorkspaceRoleView(testUserWorkspace1.getWorkspace().getId(), testUserWorkspace1.getRole()),
+                new WorkspaceRoleView(testUserWorkspace2.getWorkspace().getId(), testUserWorkspace2.getRole())
+        );
 
-        when(userWorkspaceRepository.findAll()).thenReturn(userWorkspaces);
+        when(userWorkspaceRepository.findWorkspaceRolesByUserId(userId)).thenReturn(userWorkspaces);
 
         // Act
         Map<Long, Role> result = userWorkspaceService.workspacesWithRolesForUser(userId);
@@ -100,7 +104,7 @@ class UserWorkspaceServiceImplTest {
         assertTrue(result.containsKey(2L));
         assertEquals(Role.ROLE_ADMIN, result.get(1L));
         assertEquals(Role.ROLE_VISITOR, result.get(2L));
-        verify(userWorkspaceRepository, times(1)).findAll();
+        verify(userWorkspaceRepository, times(1)).findWorkspaceRolesByUserId(userId);
     }
 
 
@@ -109,9 +113,8 @@ class UserWorkspaceServiceImplTest {
     void testWorkspacesWithRolesForUser_NoMatchingUser() {
         // Arrange
         Long userId = 3L;
-        List<UserWorkspace> userWorkspaces = List.of(testUserWorkspace1, testUserWorkspace2);
 
-        when(userWorkspaceRepository.findAll()).thenReturn(userWorkspaces);
+        when(userWorkspaceRepository.findWorkspaceRolesByUserId(userId)).thenReturn(List.of());
 
         // Act
         Map<Long, Role> result = userWorkspaceService.workspacesWithRolesForUser(userId);
@@ -119,16 +122,16 @@ class UserWorkspaceServiceImplTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(userWorkspaceRepository, times(1)).findAll();
+        verify(userWorkspaceRepository, times(1)).findWorkspaceRolesByUserId(userId);
     }
 
     @Test
     void testWorkspacesWithRolesForUser_EmptyList() {
         // Arrange
         Long userId = 1L;
-        List<UserWorkspace> userWorkspaces = List.of();  // Empty list of UserWorkspaces
+        List<WorkspaceRoleView> userWorkspaces = List.of();  // Empty list of memberships
 
-        when(userWorkspaceRepository.findAll()).thenReturn(userWorkspaces);
+        when(userWorkspaceRepository.findWorkspaceRolesByUserId(userId)).thenReturn(userWorkspaces);
 
         // Act
         Map<Long, Role> result = userWorkspaceService.workspacesWithRolesForUser(userId);
@@ -136,6 +139,6 @@ class UserWorkspaceServiceImplTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());  // No user workspaces available for the given user ID
-        verify(userWorkspaceRepository, times(1)).findAll();
+        verify(userWorkspaceRepository, times(1)).findWorkspaceRolesByUserId(userId);
     }
 }
@@ -1,12 +1,23 @@
 package mk.ukim.finki.wp.workspaces.unitTests.servicesTests;
 
+import mk.ukim.finki.wp.workspaces.dto.CursorPageDto;
 import mk.ukim.finki.wp.workspaces.dto.DisplayWorkspaceDto;
 import mk.ukim.finki.wp.workspaces.dto.EditWorkspaceDto;
+import mk.ukim.finki.wp.workspaces.dto.MembershipBatchDto;
+import mk.ukim.finki.wp.workspaces.dto.MembershipEntryDto;
 import mk.ukim.finki.wp.workspaces.dto.WorkspaceWithRoleDto;
 import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
 import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
 import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.exceptions.AccessDeniedException;
+import mk.ukim.finki.wp.workspaces.model.exceptions.InvalidArgumentsException;
+import mk.ukim.finki.wp.workspaces.model.memberships.MembershipBatchResult;
+import mk.ukim.finki.wp.workspaces.model.pagination.KeysetCursor;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceWithRoleView;
 import mk.ukim.finki.wp.workspaces.service.application.impl.WorkspaceApplicationServiceImpl;
+import mk.ukim.finki.wp.workspaces.service.domain.MembershipVersionService;
+import mk.ukim.finki.wp.workspaces.service.domain.UserWorkspaceService;
 import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,7 +27,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,6 +41,12 @@ public class WorkspaceApplicationServiceImplTest {
     @Mock
     private WorkspaceService workspaceService;
 
+    @Mock
+    private MembershipVersionService membershipVersionService;
+
+    @Mock
+    private UserWorkspaceService userWorkspaceService;
+
     @InjectMocks
     private WorkspaceApplicationServiceImpl workspaceApplicationService;
 
@@ -57,8 +76,8 @@ public class WorkspaceApplicationServiceImplTest {
 
     @Test
     public void testFindAll() {
-        // Arrange: Mock the findAll() method of the workspaceService
-        when(workspaceService.findAll()).thenReturn(List.of(workspace));
+        // Arrange: Mock the findAllViews() method of the workspaceService
+        when(workspaceService.findAllViews()).thenReturn(List.of(new WorkspaceView(1L, "Test Workspace", "Test description", 0L)));
 
         // Act: Call the findAll method of the service
         List<DisplayWorkspaceDto> result = workspaceApplicationService.findAll();
@@ -68,7 +87,34 @@ public class WorkspaceApplicationServiceImplTest {
         assertEquals(1, result.size());
         assertEquals("Test Workspace", result.get(0).getName());
         assertEquals("Test description", result.get(0).getDescription());
-        verify(workspaceService, times(1)).findAll();
+        verify(workspaceService, times(1)).findAllViews();
+    }
+
+    @Test
+    public void testFindCatalogVersion_ReadsNoWorkspaces() {
+        // Arrange
+        when(workspaceService.findCatalogChangeVersion()).thenReturn("7");
+
+        // Act
+        String version = workspaceApplicationService.findCatalogVersion();
+
+        // Assert
+        assertEquals("7", version);
+        verify(workspaceService, never()).findAllViews();
+    }
+
+    @Test
+    public void testFindMyWorkspacesVersion_CombinesMembershipAndWorkspaceChanges() {
+        // Arrange
+        when(membershipVersionService.storedVersion(7L)).thenReturn(3L);
+        when(workspaceService.findChangeVersion()).thenReturn("7");
+
+        // Act
+        String version = workspaceApplicationService.findMyWorkspacesVersion(7L);
+
+        // Assert
+        assertEquals("3-7", version);
+        verify(workspaceService, never()).findAllViewsPerUser(any());
     }
 
     @Test
@@ -112,7 +158,7 @@ public class WorkspaceApplicationServiceImplTest {
         // Create the EditWorkspaceDto and call the service method
         EditWorkspaceDto editWorkspaceDto = new EditWorkspaceDto("Updated Workspace Name", "Updated description", true);
 
-        Optional<EditWorkspaceDto> result = workspaceApplicationService.editWorkspace(1L, 1L, editWorkspaceDto);
+        Optional<EditWorkspaceDto> result = workspaceApplicationService.editWorkspace(1L, 1L, editWorkspaceDto, null);
 
         // Assert the result
         assertThat(result).isPresent();
@@ -130,7 +176,7 @@ public class WorkspaceApplicationServiceImplTest {
 
         // When / Then: Expect an exception to be thrown
         assertThrows(RuntimeException.class, () -> {
-            workspaceApplicationService.editWorkspace(1L, 1L, editWorkspaceDto);
+            workspaceApplicationService.editWorkspace(1L, 1L, editWorkspaceDto, null);
         });
 
         // Optionally verify the interaction with the service
@@ -139,9 +185,9 @@ public class WorkspaceApplicationServiceImplTest {
 
     @Test
     public void testFindAllPerUser() {
-        // Arrange: Mock the findAllPerUser() method of the workspaceService
-        // Correctly mock the return type to List<UserWorkspace>
-        when(workspaceService.findAllPerUser(1L)).thenReturn(List.of(userWorkspace));
+        // Arrange: Mock the findAllViewsPerUser() method of the workspaceService
+        when(workspaceService.findAllViewsPerUser(1L))
+                .thenReturn(List.of(new WorkspaceWithRoleView(1L, "Test Workspace", "Test description", Role.ROLE_ADMIN, 0L)));
 
         // Act: Call the findAllPerUser method of the service
         List<WorkspaceWithRoleDto> result = workspaceApplicationService.findAllPerUser(1L);
@@ -151,6 +197,86 @@ public class WorkspaceApplicationServiceImplTest {
         assertEquals(1, result.size());
         assertEquals("Test Workspace", result.get(0).getName());
         assertEquals("ROLE_ADMIN", result.get(0).getRole());
-        verify(workspaceService, times(1)).findAllPerUser(1L);
+        verify(workspaceService, times(1)).findAllViewsPerUser(1L);
+    }
+
+    @Test
+    public void testFindPage_ReturnsCursorWhenMoreRowsExist() {
+        // Arrange: The domain service returns one row more than the requested page size
+        when(workspaceService.findPage(0L, 2)).thenReturn(List.of(
+                new WorkspaceView(1L, "Test Workspace", "Test description", 0L),
+                new WorkspaceView(2L, "Second", "Second description", 0L)));
+
+        // Act: Request a page of one
+        CursorPageDto<DisplayWorkspaceDto> page = workspaceApplicationService.findPage(null, 1);
+
+        // Assert: Only the requested row is returned and the cursor continues after it
+        assertEquals(1, page.items().size());
+        assertEquals(1L, page.items().get(0).id());
+        assertEquals(1L, KeysetCursor.decode(page.nextCursor()).afterId());
+    }
+
+    @Test
+    public void testFindPage_LastPageHasNoCursor() {
+        // Arrange: Continue after workspace 1 and find nothing beyond the last row
+        String cursor = new KeysetCursor(1L).encode();
+        when(workspaceService.findPage(1L, 11)).thenReturn(List.of());
+
+        // Act
+        CursorPageDto<DisplayWorkspaceDto> page = workspaceApplicationService.findPage(cursor, 10);
+
+        // Assert
+        assertTrue(page.items().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void testFindPagePerUser_UsesWorkspaceIdAsKey() {
+        // Arrange
+        when(workspaceService.findPagePerUser(7L, 0L, 2)).thenReturn(List.of(
+                new WorkspaceWithRoleView(42L, "Test Workspace", "Test description", Role.ROLE_ADMIN, 2L),
+                new WorkspaceWithRoleView(43L, "Other", "Other description", Role.ROLE_VISITOR, 5L)));
+
+        // Act
+        CursorPageDto<WorkspaceWithRoleDto> page = workspaceApplicationService.findPagePerUser(7L, "", 1);
+
+        // Assert
+        assertEquals(1, page.items().size());
+        assertEquals(42L, KeysetCursor.decode(page.nextCursor()).afterId());
+    }
+
+    @Test
+    public void testFindPage_RejectsMalformedCursor() {
+        // Act & Assert: Tokens that were not issued by the service are rejected before any query runs
+        assertThrows(InvalidArgumentsException.class, () -> workspaceApplicationService.findPage("not-a-cursor!", 10));
+        assertThrows(InvalidArgumentsException.class, () -> workspaceApplicationService.findPage("djE6LTE", 10));
+        verifyNoInteractions(workspaceService);
+    }
+
+
+    @Test
+    public void testUpdateMembers_RejectsCallerWhoIsNotAdmin() {
+        // Arrange
+        when(userWorkspaceService.findRole(1L, 2L)).thenReturn(Optional.of(Role.ROLE_VISITOR));
+        MembershipBatchDto batch = new MembershipBatchDto(List.of(new MembershipEntryDto(3L, Role.ROLE_ADMIN)), List.of());
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> workspaceApplicationService.updateMembers(1L, 2L, batch));
+        verify(userWorkspaceService, never()).applyMembershipBatch(any(), any(), any());
+    }
+
+    @Test
+    public void testUpdateMembers_AppliesBatchOfAdmin() {
+        // Arrange
+        when(userWorkspaceService.findRole(1L, 2L)).thenReturn(Optional.of(Role.ROLE_ADMIN));
+        when(userWorkspaceService.applyMembershipBatch(1L, Map.of(3L, Role.ROLE_VISITOR), Set.of()))
+                .thenReturn(new MembershipBatchResult(1, 0, List.of()));
+        MembershipBatchDto batch = new MembershipBatchDto(List.of(new MembershipEntryDto(3L, Role.ROLE_VISITOR)), List.of());
+
+        // Act
+        workspaceApplicationService.updateMembers(1L, 2L, batch);
+
+        // Assert
+        verify(userWorkspaceService).applyMembershipBatch(1L, Map.of(3L, Role.ROLE_VISITOR), Set.of());
     }
 }
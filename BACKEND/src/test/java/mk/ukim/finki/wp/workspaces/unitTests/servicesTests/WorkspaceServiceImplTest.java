@@ -1,18 +1,33 @@
 package mk.ukim.finki.wp.workspaces.unitTests.servicesTests;
+import mk.ukim.finki.wp.workspaces.config.cache.ExistingWorkspaceIds;
+import mk.ukim.finki.wp.workspaces.config.cache.WorkspaceCatalogCache;
 import mk.ukim.finki.wp.workspaces.model.domain.UserWorkspace;
 import mk.ukim.finki.wp.workspaces.model.domain.Workspace;
+import mk.ukim.finki.wp.workspaces.model.enumerations.DeletionOutcome;
+import mk.ukim.finki.wp.workspaces.model.enumerations.Role;
+import mk.ukim.finki.wp.workspaces.model.events.WorkspaceChangedEvent;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceView;
+import mk.ukim.finki.wp.workspaces.model.projections.WorkspaceWithRoleView;
 import mk.ukim.finki.wp.workspaces.repository.UserWorkspaceRepository;
 import mk.ukim.finki.wp.workspaces.repository.WorkspaceRepository;
 import mk.ukim.finki.wp.workspaces.service.domain.UserWorkspaceService;
+import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceChangeCounterService;
+import mk.ukim.finki.wp.workspaces.service.domain.WorkspaceDeletionService;
 import mk.ukim.finki.wp.workspaces.service.domain.impl.WorkspaceServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,6 +43,21 @@ class WorkspaceServiceImplTest {
     @Mock
     private UserWorkspaceService userWorkspaceService;
 
+    @Mock
+    private WorkspaceDeletionService workspaceDeletionService;
+
+    @Mock
+    private WorkspaceCatalogCache workspaceCatalogCache;
+
+    @Mock
+    private ExistingWorkspaceIds existingWorkspaceIds;
+
+    @Mock
+    private WorkspaceChangeCounterService workspaceChangeCounterService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private WorkspaceServiceImpl workspaceService;
 
@@ -41,6 +71,7 @@ class WorkspaceServiceImplTest {
         // Setting up test data
         testWorkspace = new Workspace("Test Workspace", "Test Description");
         testWorkspace.setId(1L);
+        testWorkspace.setVersion(0L);
 
         testUserWorkspace = new UserWorkspace();
         testUserWorkspace.setId(1L);
@@ -194,4 +225,100 @@ class WorkspaceServiceImplTest {
         assertEquals(1, userWorkspaces.size());
         verify(userWorkspaceRepository, times(1)).findAllByUserId(userId);
     }
+
+    @Test
+    void testForEachWorkspace_VisitsEveryRowInOrderAndClosesStream() {
+        // Arrange
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<WorkspaceView> rows = IntStream.rangeClosed(1, 1200)
+                .mapToObj(i -> new WorkspaceView((long) i, "Workspace " + i, "Description " + i, 0L))
+                .onClose(() -> closed.set(true));
+        when(workspaceRepository.streamAllViews()).thenReturn(rows);
+        List<String> names = new ArrayList<>();
+
+        // Act
+        workspaceService.forEachWorkspace(workspace -> names.add(workspace.name()));
+
+        // Assert
+        assertEquals(1200, names.size());
+        assertEquals("Workspace 1", names.get(0));
+        assertEquals("Workspace 1200", names.get(1199));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void testFindAllViewsPerUser() {
+        // Arrange
+        Long userId = 1L;
+        WorkspaceWithRoleView view = new WorkspaceWithRoleView(1L, "Test Workspace", "Test Description", Role.ROLE_ADMIN, 0L);
+        when(userWorkspaceRepository.findWorkspacesWithRoleByUserId(userId)).thenReturn(List.of(view));
+
+        // Act
+        List<WorkspaceWithRoleView> views = workspaceService.findAllViewsPerUser(userId);
+
+        // Assert
+        assertEquals(List.of(view), views);
+        verify(userWorkspaceRepository, never()).findAllByUserId(userId);
+    }
+
+    @Test
+    void testEditWorkspace_FromResolvedView() {
+        // Arrange
+        WorkspaceView existing = new WorkspaceView(1L, "Test Workspace", "Test Description", 3L);
+        when(workspaceRepository.updateNameAndDescription(1L, "Renamed", "Renamed description")).thenReturn(1);
+        when(workspaceRepository.findVersionById(1L)).thenReturn(Optional.of(5L));
+
+        // Act
+        Optional<WorkspaceView> edited = workspaceService.editWorkspace(existing, new Workspace("Renamed", "Renamed description"), null);
+
+        // Assert: a concurrent edit may have moved the version past 4, the event carries the one actually written
+        assertEquals(Optional.of(new WorkspaceView(1L, "Renamed", "Renamed description", 5L)), edited);
+        verify(workspaceRepository, never()).findById(1L);
+        verify(eventPublisher).publishEvent(WorkspaceChangedEvent.edited(1L, 5L));
+    }
+
+    @Test
+    void testEditWorkspace_WithExpectedVersionRunsGuardedUpdate() {
+        // Arrange
+        WorkspaceView existing = new WorkspaceView(1L, "Test Workspace", "Test Description", 3L);
+        when(workspaceRepository.updateNameAndDescriptionIfVersion(1L, 3L, "Renamed", "Renamed description")).thenReturn(1);
+        when(workspaceRepository.updateNameAndDescriptionIfVersion(1L, 2L, "Renamed", "Renamed description")).thenReturn(0);
+
+        // Act
+        Optional<WorkspaceView> edited = workspaceService.editWorkspace(existing, new Workspace("Renamed", "Renamed description"), 3L);
+        Optional<WorkspaceView> stale = workspaceService.editWorkspace(existing, new Workspace("Renamed", "Renamed description"), 2L);
+
+        // Assert
+        assertEquals(Optional.of(new WorkspaceView(1L, "Renamed", "Renamed description", 4L)), edited);
+        assertTrue(stale.isEmpty());
+        verify(workspaceRepository, never()).updateNameAndDescription(anyLong(), any(), any());
+        verify(eventPublisher, times(1)).publishEvent(any(WorkspaceChangedEvent.class));
+    }
+
+    @Test
+    void testDeleteWorkspace_AdminDelegatesToDeletion() {
+        // Arrange
+        when(userWorkspaceService.findRole(1L, 1L)).thenReturn(Optional.of(Role.ROLE_ADMIN));
+        when(workspaceDeletionService.delete(1L)).thenReturn(DeletionOutcome.SCHEDULED);
+
+        // Act
+        DeletionOutcome outcome = workspaceService.deleteWorkspace(1L, 1L);
+
+        // Assert
+        assertEquals(DeletionOutcome.SCHEDULED, outcome);
+        verify(workspaceRepository, never()).delete(any());
+    }
+
+    @Test
+    void testDeleteWorkspace_VisitorCannotDelete() {
+        // Arrange
+        when(userWorkspaceService.findRole(1L, 1L)).thenReturn(Optional.of(Role.ROLE_VISITOR));
+
+        // Act
+        DeletionOutcome outcome = workspaceService.deleteWorkspace(1L, 1L);
+
+        // Assert
+        assertEquals(DeletionOutcome.NOT_FOUND, outcome);
+        verifyNoInteractions(workspaceDeletionService);
+    }
 }